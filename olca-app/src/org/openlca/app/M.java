@@ -17,6 +17,7 @@ public class M extends NLS {
 	// A
 	public static String ALocationCodeIsRequired;
 	public static String ANameIsRequired;
+	public static String AsResultMatrixFile;
 	public static String AUnitWithThisNameAlreadyExists;
 	public static String AboutOpenLCA;
 	public static String AccessAndUseRestrictions;
@@ -226,6 +227,7 @@ public class M extends NLS {
 	public static String Compare;
 	public static String CompareWith;
 	public static String CompareWithWorkspace;
+	public static String ComparingDataSetsDots;
 	public static String Complete;
 	public static String CompleteReferenceData;
 	public static String Completeness;
@@ -623,6 +625,7 @@ public class M extends NLS {
 	public static String FirstConfigurationDescription;
 	public static String FindEpds;
 	public static String FindUsages;
+	public static String FlatCsvFile;
 	public static String Flow;
 	public static String FlowBindings;
 	public static String FlowCannotBeAddedTwiceToInputs;
@@ -1168,6 +1171,7 @@ public class M extends NLS {
 	public static String OpenFlowMapping;
 	public static String OpenFlowSource;
 	public static String OpenInEditor;
+	public static String OpeningResultMatrixFileDots;
 	public static String OpenLCALog;
 	public static String OpenLcaJsonLdImport;
 	public static String OpenLogFile;
@@ -1178,6 +1182,7 @@ public class M extends NLS {
 	public static String OpenPreferenceDialog;
 	public static String OpenProvider;
 	public static String OpenResult;
+	public static String OpenResultMatrixFileDots;
 	public static String OrSelectExisting;
 	public static String Organisation;
 	public static String Orientation;
@@ -1202,6 +1207,7 @@ public class M extends NLS {
 	// P
 	public static String Page;
 	public static String PageSize;
+	public static String ParallelSimulationExportInfo;
 	public static String Parameter;
 	public static String ParameterCannotBeGlobalErr;
 	public static String ParameterDefinition;
@@ -1412,6 +1418,7 @@ public class M extends NLS {
 	public static String RunCalculationQ;
 	public static String RunDatabaseValidationAfterReplacingLibrary;
 	public static String RunImport;
+	public static String RunInParallel;
 	public static String RunSqlStatement;
 
 	// S
@@ -1437,6 +1444,7 @@ public class M extends NLS {
 	public static String SaveQ;
 	public static String SaveResult;
 	public static String SaveResultAsDots;
+	public static String SaveResultMatrixFileDots;
 	public static String SaveScript;
 	public static String SaveSetupToFile;
 	public static String SavedFile;
@@ -19,7 +19,12 @@ import static org.openlca.core.model.ModelType.SOURCE;
 import static org.openlca.core.model.ModelType.UNIT_GROUP;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 import org.openlca.app.M;
@@ -28,9 +33,24 @@ import org.openlca.app.collaboration.navigation.NavElement.ElementType;
 import org.openlca.app.db.Database;
 import org.openlca.app.navigation.Navigator;
 import org.openlca.app.navigation.elements.INavigationElement;
+import org.openlca.core.database.Daos;
+import org.openlca.core.database.IDatabase;
 import org.openlca.core.model.Category;
 import org.openlca.core.model.ModelType;
+import org.openlca.core.model.Parameter;
+import org.openlca.core.model.ParameterScope;
+import org.openlca.core.model.descriptors.Descriptor;
+import org.openlca.core.model.descriptors.RootDescriptor;
 
+/**
+ * The repository state of the navigation tree of the active database. The
+ * cache is built once and then updated incrementally: when a single dataset
+ * is saved, created, or deleted, only its element is replaced and the
+ * memoized repository states (changed, new, contains deleted) are cleared
+ * along the category path of the element. Changes of categories or of the
+ * library content, and all changes the cache cannot map to a single element,
+ * mark the cache as outdated so that it is rebuilt with the next refresh.
+ */
 public class NavCache {
 
 	private static final ModelType[] UNGROUPED_TYPES = {
@@ -43,11 +63,24 @@ public class NavCache {
 			FLOW_PROPERTY, UNIT_GROUP, CURRENCY, ACTOR, SOURCE, LOCATION
 	};
 
-	private static NavCache INSTANCE = new NavCache();
+	private static NavCache INSTANCE = new NavCache(null);
 	private final NavElement root = new NavElement(ElementType.DATABASE, null);
-	private Boolean changes;
+	private final IDatabase db;
+	private boolean outdated;
 
-	private NavCache() {
+	// indices for the incremental updates
+	private final Map<NavElement, NavElement> parents = new IdentityHashMap<>();
+	private final Map<ModelType, NavElement> typeElements = new EnumMap<>(ModelType.class);
+	private final Map<Long, NavElement> categories = new HashMap<>();
+	private final Map<ModelType, Map<Long, NavElement>> models = new EnumMap<>(ModelType.class);
+
+	// memoized repository states of the elements
+	private final Map<NavElement, Boolean> changed = new IdentityHashMap<>();
+	private final Map<NavElement, Boolean> added = new IdentityHashMap<>();
+	private final Map<NavElement, Boolean> deleted = new IdentityHashMap<>();
+
+	private NavCache(IDatabase db) {
+		this.db = db;
 	}
 
 	public static NavCache get() {
@@ -58,9 +91,20 @@ public class NavCache {
 		refresh(null);
 	}
 
-	public static void refresh(ModelType type) {
+	/**
+	 * Reloads the descriptors of the given model type and rebuilds the
+	 * elements of that type. If the type is {@code null} or the cache is
+	 * outdated, the complete cache is rebuilt.
+	 */
+	public static synchronized void refresh(ModelType type) {
 		var database = Database.get();
-		INSTANCE = new NavCache();
+		if (type != null && INSTANCE.isCurrent(database)
+				&& INSTANCE.typeElements.containsKey(type)) {
+			Repository.CURRENT.descriptors.reload(type);
+			INSTANCE.rebuild(type);
+			return;
+		}
+		INSTANCE = new NavCache(database);
 		if (database == null || !Repository.isConnected())
 			return;
 		if (type == null) {
@@ -71,15 +115,184 @@ public class NavCache {
 		INSTANCE.build();
 	}
 
+	/**
+	 * Rebuilds the cache only if it is outdated; otherwise the single dataset
+	 * updates were already applied via {@link #update(Descriptor)}.
+	 */
+	public static synchronized void sync() {
+		if (!INSTANCE.isCurrent(Database.get())) {
+			refresh(null);
+		}
+	}
+
+	/**
+	 * Marks the cache as outdated, e.g. when all caches are evicted.
+	 */
+	public static synchronized void invalidate() {
+		INSTANCE.outdated = true;
+	}
+
+	/**
+	 * Updates the element of the given dataset after it was saved, created,
+	 * or deleted. The dataset is reloaded from the database; if it does not
+	 * exist anymore, its element is removed.
+	 */
+	public static synchronized void update(Descriptor d) {
+		var cache = INSTANCE;
+		if (d == null || cache.db == null || cache.outdated)
+			return;
+		if (d.type == null || d.type == ModelType.CATEGORY
+				|| cache.db != Database.get()) {
+			cache.outdated = true;
+			return;
+		}
+		if (!cache.typeElements.containsKey(d.type))
+			return;
+		cache.replace(d.type, d.id, fetch(cache.db, d.type, d.id));
+	}
+
 	static NavElement get(INavigationElement<?> elem) {
 		return new NavFinder(Repository.CURRENT).find(INSTANCE.root, elem);
 	}
 
 	public boolean hasChanges() {
-		if (changes == null) {
-			changes = RepositoryLabel.hasChanged(Navigator.findElement(Database.getActiveConfiguration()));
+		return RepositoryLabel.hasChanged(Navigator.findElement(Database.getActiveConfiguration()));
+	}
+
+	boolean isChanged(NavElement elem, BooleanSupplier fn) {
+		return memo(changed, elem, fn);
+	}
+
+	boolean isNew(NavElement elem, BooleanSupplier fn) {
+		return memo(added, elem, fn);
+	}
+
+	boolean containsDeleted(NavElement elem, BooleanSupplier fn) {
+		return memo(deleted, elem, fn);
+	}
+
+	// synchronized on the class, like the updates
+	private static synchronized boolean memo(Map<NavElement, Boolean> states, NavElement elem, BooleanSupplier fn) {
+		var state = states.get(elem);
+		if (state != null)
+			return state;
+		state = fn.getAsBoolean();
+		states.put(elem, state);
+		return state;
+	}
+
+	private boolean isCurrent(IDatabase database) {
+		return db != null
+				&& db == database
+				&& !outdated
+				&& Repository.isConnected();
+	}
+
+	private void replace(ModelType type, long id, RootDescriptor d) {
+		var byId = models.computeIfAbsent(type, $ -> new HashMap<>());
+		var old = byId.remove(id);
+		if (old != null) {
+			if (old.isFromLibrary()) {
+				outdated = true;
+				return;
+			}
+			var parent = parents.remove(old);
+			forget(old);
+			if (parent != null) {
+				parent.children().removeIf(child -> child == old);
+				clearPath(parent);
+			}
+		}
+		if (d == null)
+			return;
+		var parent = d.category == null
+				? typeElements.get(type)
+				: categories.get(d.category);
+		// a new category or a change of the library content of a category
+		// cannot be mapped to a single element
+		if (parent == null || parent.isFromLibrary() || d.isFromLibrary()) {
+			outdated = true;
+			return;
+		}
+		var elem = new NavElement(d);
+		parent.children().add(elem);
+		parents.put(elem, parent);
+		byId.put(id, elem);
+		clearPath(parent);
+	}
+
+	private void rebuild(ModelType type) {
+		var typeElement = typeElements.get(type);
+		for (var child : typeElement.children()) {
+			unregister(child);
+		}
+		typeElement.children().clear();
+		typeElement.children().addAll(buildChildren(type, null));
+		register(typeElement);
+		clearPath(typeElement);
+	}
+
+	/**
+	 * Clears the memoized states of the given element and its parents.
+	 */
+	private void clearPath(NavElement elem) {
+		var next = elem;
+		while (next != null) {
+			forget(next);
+			next = parents.get(next);
+		}
+	}
+
+	private void forget(NavElement elem) {
+		changed.remove(elem);
+		added.remove(elem);
+		deleted.remove(elem);
+	}
+
+	private void register(NavElement parent) {
+		for (var child : parent.children()) {
+			parents.put(child, parent);
+			switch (child.type()) {
+				case MODEL_TYPE -> typeElements.put((ModelType) child.content(), child);
+				case CATEGORY -> categories.put(((Category) child.content()).id, child);
+				case MODEL -> {
+					var d = (RootDescriptor) child.content();
+					models.computeIfAbsent(d.type, $ -> new HashMap<>()).put(d.id, child);
+				}
+				default -> {
+				}
+			}
+			register(child);
+		}
+	}
+
+	private void unregister(NavElement elem) {
+		for (var child : elem.children()) {
+			unregister(child);
+		}
+		parents.remove(elem);
+		forget(elem);
+		if (elem.content() instanceof Category c) {
+			categories.remove(c.id);
+		} else if (elem.content() instanceof RootDescriptor d) {
+			var byId = models.get(d.type);
+			if (byId != null) {
+				byId.remove(d.id);
+			}
+		}
+	}
+
+	private static RootDescriptor fetch(IDatabase db, ModelType type, long id) {
+		if (type == ModelType.PARAMETER) {
+			var param = db.get(Parameter.class, id);
+			return param != null && param.scope == ParameterScope.GLOBAL
+					? Descriptor.of(param)
+					: null;
 		}
-		return changes;
+		var dao = Daos.root(db, type);
+		return dao != null
+				? dao.getDescriptor(id)
+				: null;
 	}
 
 	private void build() {
@@ -87,6 +300,7 @@ public class NavCache {
 		buildGroup(root, M.IndicatorsAndParameters, GROUP1_TYPES);
 		buildGroup(root, M.BackgroundData, GROUP2_TYPES);
 		buildLibraryDir(root);
+		register(root);
 	}
 
 	private void buildGroup(NavElement parent, String group, ModelType[] types) {
@@ -91,6 +91,10 @@ public class RepositoryLabel {
 	private static boolean hasChanged(NavElement elem) {
 		if (Database.get() == null || !Repository.isConnected() || elem == null || elem.isFromLibrary())
 			return false;
+		return NavCache.get().isChanged(elem, () -> computeChanged(elem));
+	}
+
+	private static boolean computeChanged(NavElement elem) {
 		if (elem.is(ElementType.MODEL)) {
 			if (isNew(elem))
 				return false;
@@ -110,6 +114,10 @@ public class RepositoryLabel {
 	private static boolean isNew(NavElement elem) {
 		if (elem == null || elem.isFromLibrary())
 			return false;
+		return NavCache.get().isNew(elem, () -> computeNew(elem));
+	}
+
+	private static boolean computeNew(NavElement elem) {
 		if (elem.is(ElementType.LIBRARY) && isNewLibrary((String) elem.content()))
 			return true;
 		if (elem.is(ElementType.CATEGORY) && !Repository.CURRENT.index.contains(getPath(elem.content())))
@@ -122,6 +130,10 @@ public class RepositoryLabel {
 	private static boolean containsDeleted(NavElement elem) {
 		if (elem.is(ElementType.MODEL))
 			return false;
+		return NavCache.get().containsDeleted(elem, () -> computeContainsDeleted(elem));
+	}
+
+	private static boolean computeContainsDeleted(NavElement elem) {
 		for (var child : elem.children())
 			if (containsDeleted(child))
 				return true;
@@ -7,12 +7,10 @@ import java.util.Set;
 import java.util.Stack;
 import java.util.stream.Collectors;
 
-import org.openlca.app.App;
-import org.openlca.app.M;
 import org.openlca.app.collaboration.dialogs.CommitReferencesDialog;
 import org.openlca.app.collaboration.preferences.CollaborationPreference;
+import org.openlca.app.collaboration.util.ReferenceGraph;
 import org.openlca.app.collaboration.viewers.diff.DiffNode;
-import org.openlca.app.db.Database;
 import org.openlca.core.database.ModelReferences;
 import org.openlca.core.model.TypedRefId;
 import org.openlca.git.model.Diff;
@@ -48,7 +46,7 @@ class ReferenceCheck {
 				.filter(node -> node.contentAsTriDiff().type != null)
 				.forEach(node -> selection.put(node.contentAsTriDiff(), node));
 		this.visited = new TypedRefIdSet();
-		this.references = App.exec(M.CollectingReferencesDots, () -> ModelReferences.scan(Database.get()));
+		this.references = ReferenceGraph.get();
 	}
 
 	static List<Diff> forRemote(List<Diff> all, Set<DiffNode> input) {
@@ -1,7 +1,11 @@
 package org.openlca.app.collaboration.util;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Stack;
@@ -17,6 +21,8 @@ import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.TypeAdapter;
 
+import gnu.trove.list.array.TIntArrayList;
+
 public class Json {
 
 	private static final Gson gson = new Gson();
@@ -112,9 +118,10 @@ public class Json {
 			return false;
 		var it1 = a1.iterator();
 		var used = new HashSet<Integer>();
+		var index2 = finder.index(property, a2);
 		while (it1.hasNext()) {
 			var e1 = it1.next();
-			var index = finder.find(property, e1, a2, used);
+			var index = index2.find(e1, used);
 			if (index == -1)
 				return false;
 			var e2 = a2.get(index);
@@ -421,6 +428,90 @@ public class Json {
 			return Json.find(element, array, exclude, getComparisonFields(property));
 		}
 
+		/**
+		 * Creates an index of the given array for matching many elements
+		 * against it; see {@link ArrayIndex}.
+		 */
+		public ArrayIndex index(String property, JsonArray array) {
+			return new ArrayIndex(array, getComparisonFields(property));
+		}
+
+	}
+
+	/**
+	 * A hash index of the elements of a JSON array by the values of their
+	 * comparison fields. It returns the same positions as
+	 * {@link Json#find(JsonElement, JsonArray, Set, String...)} but in
+	 * constant time, so that matching two arrays is linear instead of
+	 * quadratic in their size. The index is meant to be used with a single
+	 * set of excluded positions that only grows, i.e. positions are added to
+	 * it when they were matched.
+	 */
+	public static class ArrayIndex {
+
+		private final String[] fields;
+		private final Map<JsonPrimitive, Integer> primitives = new HashMap<>();
+		private final Map<List<String>, Bucket> objects = new HashMap<>();
+
+		private ArrayIndex(JsonArray array, String[] fields) {
+			this.fields = fields;
+			if (array == null)
+				return;
+			for (int i = 0; i < array.size(); i++) {
+				var element = array.get(i);
+				if (element.isJsonPrimitive()) {
+					primitives.putIfAbsent(element.getAsJsonPrimitive(), i);
+				} else if (fields != null && element.isJsonObject()) {
+					var key = keyOf(element.getAsJsonObject());
+					objects.computeIfAbsent(key, $ -> new Bucket()).positions.add(i);
+				}
+			}
+		}
+
+		private List<String> keyOf(JsonObject object) {
+			return Arrays.asList(getValues(object, fields));
+		}
+
+		public int find(JsonElement element, Set<Integer> exclude) {
+			if (element == null)
+				return -1;
+			if (element.isJsonPrimitive()) {
+				var index = primitives.get(element.getAsJsonPrimitive());
+				return index != null ? index : -1;
+			}
+			if (fields == null || !element.isJsonObject())
+				return -1;
+			var bucket = objects.get(keyOf(element.getAsJsonObject()));
+			return bucket != null
+					? bucket.next(exclude)
+					: -1;
+		}
+
+		/**
+		 * The positions of the elements with the same key in array order.
+		 * Leading positions that are excluded are skipped once and not
+		 * checked again.
+		 */
+		private static class Bucket {
+
+			private final TIntArrayList positions = new TIntArrayList(1);
+			private int start;
+
+			int next(Set<Integer> exclude) {
+				if (exclude == null)
+					return positions.get(0);
+				while (start < positions.size()
+						&& exclude.contains(positions.get(start))) {
+					start++;
+				}
+				for (int i = start; i < positions.size(); i++) {
+					int pos = positions.get(i);
+					if (!exclude.contains(pos))
+						return pos;
+				}
+				return -1;
+			}
+		}
 	}
 
 }
@@ -0,0 +1,195 @@
+package org.openlca.app.collaboration.util;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openlca.app.App;
+import org.openlca.app.M;
+import org.openlca.app.collaboration.Repository;
+import org.openlca.app.collaboration.preferences.CollaborationPreference;
+import org.openlca.app.db.Database;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.database.ModelReferences;
+import org.openlca.core.database.NativeSql;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the model references of the active database for the reference checks
+ * of commits and stashes. Scanning the references is a full database scan,
+ * so the scanned references are kept until a model is changed. Changes are
+ * reported via the hooks in {@link org.openlca.app.db.Cache} and mark the
+ * references as outdated. When the database is connected to a repository,
+ * the references are then scanned again in the background after a short
+ * delay, so that they are usually up to date when the next commit is made.
+ * Only when this is not the case, the scan runs behind a progress dialog.
+ * <p>
+ * As not every writer calls these hooks, the kept references are validated
+ * before they are returned: the number of rows and the latest change of each
+ * model table are compared with the state of the tables when the references
+ * were scanned, and the database is scanned again when they differ.
+ */
+public final class ReferenceGraph {
+
+	/** The delay in seconds after the last change before the rescan. */
+	private static final int RESCAN_DELAY = 10;
+
+	/** The tables of the models that can reference each other. */
+	private static final String[] TABLES = {
+			"tbl_actors",
+			"tbl_categories",
+			"tbl_currencies",
+			"tbl_dq_systems",
+			"tbl_epds",
+			"tbl_flows",
+			"tbl_flow_properties",
+			"tbl_impact_categories",
+			"tbl_impact_methods",
+			"tbl_locations",
+			"tbl_parameters",
+			"tbl_processes",
+			"tbl_product_systems",
+			"tbl_projects",
+			"tbl_results",
+			"tbl_social_indicators",
+			"tbl_sources",
+			"tbl_unit_groups",
+	};
+
+	private static final Logger log = LoggerFactory.getLogger(ReferenceGraph.class);
+	private static final ScheduledExecutorService executor =
+			Executors.newSingleThreadScheduledExecutor(r -> {
+				var thread = new Thread(r, "reference-graph");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	private static IDatabase db;
+	private static ModelReferences references;
+	private static String stamp;
+	private static long version;
+	private static ScheduledFuture<?> pending;
+
+	private ReferenceGraph() {
+	}
+
+	/**
+	 * Returns the model references of the active database. If there are no
+	 * up-to-date references, the database is scanned behind a progress dialog;
+	 * thus, this should be called in the UI thread.
+	 */
+	public static ModelReferences get() {
+		var current = Database.get();
+		if (current == null)
+			return null;
+		var currentStamp = stampOf(current);
+		synchronized (ReferenceGraph.class) {
+			if (references != null && db == current) {
+				if (currentStamp.equals(stamp))
+					return references;
+				log.trace("model tables changed since the last scan");
+				references = null;
+			}
+			// a running background scan would be outdated or duplicate
+			// the scan below
+			cancelPending();
+		}
+		long v = currentVersion();
+		var refs = App.exec(M.CollectingReferencesDots,
+				() -> ModelReferences.scan(current));
+		synchronized (ReferenceGraph.class) {
+			if (refs != null && v == version) {
+				db = current;
+				references = refs;
+				stamp = currentStamp;
+			}
+		}
+		return refs;
+	}
+
+	/**
+	 * Marks the references as outdated, e.g. when a model was saved, created,
+	 * or deleted, and schedules a rescan in the background. A rescan that was
+	 * scheduled is canceled; the result of a running rescan is discarded.
+	 */
+	public static synchronized void invalidate() {
+		version++;
+		references = null;
+		stamp = null;
+		cancelPending();
+		if (!Repository.isConnected()
+				|| !CollaborationPreference.checkReferences()
+				|| CollaborationPreference.onlyFullCommits())
+			return;
+		pending = executor.schedule(
+				ReferenceGraph::rescan, RESCAN_DELAY, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Cancels the background rescan if it has not started yet. A running scan
+	 * is not interrupted, as an interrupt can close the connection or the
+	 * file channels of an embedded database under it; it stops before the
+	 * full scan or its result is discarded, as the version changed.
+	 */
+	private static void cancelPending() {
+		if (pending != null) {
+			pending.cancel(false);
+			pending = null;
+		}
+	}
+
+	private static synchronized long currentVersion() {
+		return version;
+	}
+
+	private static void rescan() {
+		var current = Database.get();
+		if (current == null)
+			return;
+		long v = currentVersion();
+		try {
+			log.trace("rescan model references");
+			var currentStamp = stampOf(current);
+			if (v != currentVersion()) {
+				log.trace("rescan of model references canceled");
+				return;
+			}
+			var refs = ModelReferences.scan(current);
+			synchronized (ReferenceGraph.class) {
+				// only take the references when nothing changed in between
+				if (v == version && current == Database.get()) {
+					db = current;
+					references = refs;
+					stamp = currentStamp;
+				}
+			}
+		} catch (Exception e) {
+			log.error("failed to scan model references", e);
+		}
+	}
+
+	/**
+	 * Returns the state of the model tables: the number of rows and the
+	 * latest change of each table. If a table cannot be read, the stamp is
+	 * unique, so that it never matches and a full scan is done.
+	 */
+	private static String stampOf(IDatabase database) {
+		var s = new StringBuilder();
+		for (var table : TABLES) {
+			var sql = "select count(*), max(last_change) from " + table;
+			try {
+				NativeSql.on(database).query(sql, r -> {
+					s.append(r.getLong(1)).append('/')
+							.append(r.getLong(2)).append(';');
+					return false;
+				});
+			} catch (Exception e) {
+				log.error("failed to get state of " + table, e);
+				s.append(System.nanoTime());
+			}
+		}
+		return s.toString();
+	}
+}
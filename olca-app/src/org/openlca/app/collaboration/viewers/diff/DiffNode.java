@@ -13,6 +13,7 @@ public class DiffNode {
 	final Object content;
 	final DiffNode parent;
 	public final List<DiffNode> children = new ArrayList<>();
+	private int hash;
 
 	DiffNode(DiffNode parent, Object content) {
 		this.parent = parent;
@@ -74,9 +75,14 @@ public class DiffNode {
 	public final int hashCode() {
 		if (content == null)
 			return super.hashCode();
-		return parent == null
-				? content.hashCode()
-				: Objects.hash(content, parent);
+		// content and parent are final; the hash is computed once as it
+		// includes the hashes of all parents
+		if (hash == 0) {
+			hash = parent == null
+					? content.hashCode()
+					: Objects.hash(content, parent);
+		}
+		return hash;
 	}
 
 	@Override
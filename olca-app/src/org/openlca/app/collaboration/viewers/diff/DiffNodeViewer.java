@@ -1,7 +1,14 @@
 package org.openlca.app.collaboration.viewers.diff;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.jface.viewers.DoubleClickEvent;
 import org.eclipse.jface.viewers.IStructuredSelection;
@@ -12,6 +19,7 @@ import org.eclipse.jface.viewers.ViewerComparator;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.widgets.Composite;
+import org.openlca.app.App;
 import org.openlca.app.M;
 import org.openlca.app.collaboration.Repository;
 import org.openlca.app.collaboration.dialogs.JsonCompareDialog;
@@ -25,6 +33,7 @@ import org.openlca.app.rcp.images.Overlay;
 import org.openlca.app.util.Labels;
 import org.openlca.app.viewers.AbstractViewer;
 import org.openlca.core.database.Daos;
+import org.openlca.core.database.NativeSql;
 import org.openlca.core.model.ModelType;
 import org.openlca.git.actions.ConflictResolver.ConflictResolution;
 import org.openlca.git.actions.ConflictResolver.ConflictResolutionType;
@@ -36,6 +45,8 @@ import org.openlca.util.TypedRefIdMap;
 
 import com.google.gson.JsonObject;
 
+import jakarta.persistence.Table;
+
 abstract class DiffNodeViewer extends AbstractViewer<DiffNode, TreeViewer> {
 
 	DiffNode root;
@@ -54,6 +65,7 @@ abstract class DiffNodeViewer extends AbstractViewer<DiffNode, TreeViewer> {
 
 	@Override
 	public void setInput(Collection<DiffNode> collection) {
+		clearLabels();
 		if (collection.isEmpty()) {
 			root = null;
 			super.setInput((Collection<DiffNode>) null);
@@ -65,10 +77,21 @@ abstract class DiffNodeViewer extends AbstractViewer<DiffNode, TreeViewer> {
 
 	@Override
 	public void setInput(DiffNode[] input) {
+		clearLabels();
 		root = input[0];
 		super.setInput(input);
 	}
 
+	/**
+	 * Clears the cached labels, as a viewer can be reused for the diffs of
+	 * another commit or database.
+	 */
+	private void clearLabels() {
+		if (getViewer().getLabelProvider() instanceof DiffNodeLabelProvider labels) {
+			labels.clear();
+		}
+	}
+
 	public void setOnMerge(Runnable onMerge) {
 		this.onMerge = onMerge;
 	}
@@ -82,7 +105,8 @@ abstract class DiffNodeViewer extends AbstractViewer<DiffNode, TreeViewer> {
 		if (selected == null || selected.isCategoryNode())
 			return;
 		var diff = selected.contentAsTriDiff();
-		var node = createNode(diff);
+		// loading and matching large data sets can take a while
+		var node = App.exec(M.ComparingDataSetsDots, () -> createNode(diff));
 		var dialog = canMerge
 				? JsonCompareDialog.forMerging(node)
 				: JsonCompareDialog.forComparison(node);
@@ -192,6 +216,21 @@ abstract class DiffNodeViewer extends AbstractViewer<DiffNode, TreeViewer> {
 
 	protected class DiffNodeLabelProvider extends org.eclipse.jface.viewers.LabelProvider {
 
+		/**
+		 * When more names of a model type are requested, the names of all
+		 * models of that type in the diff tree are loaded at once instead of
+		 * one query per name.
+		 */
+		private static final int BULK_LOAD_AFTER = 50;
+
+		/** The maximum number of IDs in a query of the bulk load. */
+		private static final int BULK_LOAD_CHUNK = 500;
+
+		/** The labels of the model nodes, which are also used for sorting. */
+		private final Map<TriDiff, String> labels = new HashMap<>();
+		private final Map<ModelType, Map<String, String>> names = new EnumMap<>(ModelType.class);
+		private final Set<ModelType> bulkLoaded = EnumSet.noneOf(ModelType.class);
+
 		@Override
 		public String getText(Object element) {
 			if (element == null)
@@ -212,9 +251,19 @@ abstract class DiffNodeViewer extends AbstractViewer<DiffNode, TreeViewer> {
 			if (node.isCategoryNode() && node.content instanceof TriDiff)
 				return node.contentAsTriDiff().path.substring(node.contentAsTriDiff().path.lastIndexOf("/") + 1);
 			var diff = (TriDiff) node.content;
-			var descriptor = Daos.root(Database.get(), diff.type).getDescriptorForRefId(diff.refId);
-			if (descriptor != null)
-				return descriptor.name;
+			return labels.computeIfAbsent(diff, this::getModelText);
+		}
+
+		void clear() {
+			labels.clear();
+			names.clear();
+			bulkLoaded.clear();
+		}
+
+		private String getModelText(TriDiff diff) {
+			var name = getName(diff.type, diff.refId);
+			if (name != null)
+				return name;
 			var repo = Repository.CURRENT;
 			if (diff.right != null && hasObjectId(diff.right.newRef))
 				return repo.datasets.getName(diff.right.newRef);
@@ -227,6 +276,80 @@ abstract class DiffNodeViewer extends AbstractViewer<DiffNode, TreeViewer> {
 			return "";
 		}
 
+		private String getName(ModelType type, String refId) {
+			var typeNames = names.computeIfAbsent(type, $ -> new HashMap<>());
+			if (typeNames.containsKey(refId))
+				return typeNames.get(refId);
+			var dao = Daos.root(Database.get(), type);
+			if (typeNames.size() >= BULK_LOAD_AFTER && bulkLoaded.add(type)) {
+				loadNames(type, typeNames);
+				if (typeNames.containsKey(refId))
+					return typeNames.get(refId);
+			}
+			var descriptor = bulkLoaded.contains(type)
+					? null
+					: dao.getDescriptorForRefId(refId);
+			var name = descriptor != null ? descriptor.name : null;
+			typeNames.put(refId, name);
+			return name;
+		}
+
+		/**
+		 * Loads the names of the models of the given type that are in the diff
+		 * tree and not yet in the given map.
+		 */
+		private void loadNames(ModelType type, Map<String, String> typeNames) {
+			var clazz = type.getModelClass();
+			if (clazz == null || !clazz.isAnnotationPresent(Table.class))
+				return;
+			var table = clazz.getAnnotation(Table.class).name();
+			var refIds = new ArrayList<>(refIdsOf(type));
+			refIds.removeIf(typeNames::containsKey);
+			var db = Database.get();
+			for (int i = 0; i < refIds.size(); i += BULK_LOAD_CHUNK) {
+				var chunk = refIds.subList(i, Math.min(i + BULK_LOAD_CHUNK, refIds.size()));
+				var sql = new StringBuilder("select ref_id, name from ")
+						.append(table)
+						.append(" where ref_id in (");
+				for (int j = 0; j < chunk.size(); j++) {
+					if (j > 0) {
+						sql.append(',');
+					}
+					sql.append('\'')
+							.append(chunk.get(j).replace("'", "''"))
+							.append('\'');
+				}
+				sql.append(')');
+				NativeSql.on(db).query(sql.toString(), r -> {
+					typeNames.putIfAbsent(r.getString(1), r.getString(2));
+					return true;
+				});
+			}
+		}
+
+		/**
+		 * Collects the reference IDs of the models of the given type in the
+		 * diff tree.
+		 */
+		private List<String> refIdsOf(ModelType type) {
+			var refIds = new ArrayList<String>();
+			if (root == null)
+				return refIds;
+			var queue = new ArrayDeque<DiffNode>();
+			queue.add(root);
+			while (!queue.isEmpty()) {
+				var node = queue.poll();
+				queue.addAll(node.children);
+				if (node.isCategoryNode() || node.isLibraryNode()
+						|| !(node.content instanceof TriDiff diff))
+					continue;
+				if (diff.type == type && diff.refId != null) {
+					refIds.add(diff.refId);
+				}
+			}
+			return refIds;
+		}
+
 		private static boolean hasObjectId(Reference ref) {
 			return ref != null && !ObjectId.zeroId().equals(ref.objectId);
 		}
@@ -7,6 +7,7 @@ import java.util.Set;
 
 import org.eclipse.jgit.diff.DiffEntry.Side;
 import org.openlca.app.collaboration.util.Json;
+import org.openlca.app.collaboration.util.Json.ArrayIndex;
 import org.openlca.app.collaboration.util.Json.ElementFinder;
 
 import com.google.gson.JsonArray;
@@ -117,24 +118,28 @@ public class JsonNode {
 		if (children.isEmpty())
 			return;
 		var assigned = new HashSet<Integer>();
+		var index = left != null && left.isJsonArray()
+				? elementFinder.index(property, left.getAsJsonArray())
+				: null;
 		children.forEach(child -> {
-			var element = getElement(child, leftToRight, assigned);
+			var element = getElement(child, leftToRight, index, assigned);
 			child.left = element;
 			child.updateChildren(leftToRight);
 		});
 	}
 
-	private JsonElement getElement(JsonNode node, boolean leftToRight, Set<Integer> assigned) {
+	private JsonElement getElement(JsonNode node, boolean leftToRight, ArrayIndex arrayIndex,
+			Set<Integer> assigned) {
 		if (left == null)
 			return null;
 		if (left.isJsonObject())
 			return left.getAsJsonObject().get(node.property);
-		if (!left.isJsonArray())
+		if (!left.isJsonArray() || arrayIndex == null)
 			return null;
 		var toFind = leftToRight
 				? node.original
 				: node.right;
-		var index = elementFinder.find(property, toFind, left.getAsJsonArray(), assigned);
+		var index = arrayIndex.find(toFind, assigned);
 		if (index == -1)
 			return null;
 		assigned.add(index);
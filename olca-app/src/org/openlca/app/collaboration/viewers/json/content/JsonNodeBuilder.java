@@ -88,12 +88,18 @@ public abstract class JsonNodeBuilder implements Comparator<JsonNode> {
 	private void buildChildren(JsonNode node, JsonArray array, JsonArray otherArray, Side side, Set<Integer> added) {
 		var count = 0;
 		var counter = node.children.size() + 1;
+		// only the elements of the old side are matched with the other side
+		var otherIndex = side == Side.OLD && otherArray != null
+				? elementFinder.index(node.property, otherArray)
+				: null;
 		for (var value : array) {
 			if (side == Side.NEW && added.contains(count++))
 				continue;
 			JsonElement otherValue = null;
-			var index = elementFinder.find(node.property, value, otherArray, added);
-			if (side == Side.OLD && index != -1) {
+			var index = otherIndex != null
+					? otherIndex.find(value, added)
+					: -1;
+			if (index != -1) {
 				otherValue = otherArray.get(index);
 				added.add(index);
 			}
@@ -1,10 +1,18 @@
 package org.openlca.app.components.graphics.figures;
 
 import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.Graphics;
 import org.openlca.app.components.graphics.model.Component;
 
 public class ComponentFigure extends Figure {
 
+	/**
+	 * The zoom level below which figures can be painted without details, e.g.
+	 * as plain boxes without labels and child figures. This is also the case
+	 * when the figures are painted in the minimap.
+	 */
+	public static final double DETAIL_ZOOM = 0.4;
+
 	private final Component component;
 
 	public ComponentFigure(Component component) {
@@ -15,4 +23,12 @@ public class ComponentFigure extends Figure {
 		return component;
 	}
 
+	/**
+	 * Returns {@code true} when figures should be painted with all their
+	 * details on the given graphics, depending on its absolute scale.
+	 */
+	public static boolean hasDetails(Graphics g) {
+		return g.getAbsoluteScale() >= DETAIL_ZOOM;
+	}
+
 }
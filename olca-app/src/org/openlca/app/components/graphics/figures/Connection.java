@@ -55,8 +55,10 @@ public class Connection extends SelectableConnection {
 	@Override
 	protected void outlineShape(Graphics g) {
 		g.setInterpolation(HIGH);
-		// When the graphical interface is too packed, ROUTER_NULL is used.
-		var accelerate = base.getChildren().size() > CHILDREN_LIMIT;
+		// When the graphical interface is too packed or zoomed out so that no
+		// details are visible, ROUTER_NULL is used.
+		var accelerate = base.getChildren().size() > CHILDREN_LIMIT
+				|| !ComponentFigure.hasDetails(g);
 
 		if (Objects.equals(type, ROUTER_MANHATTAN)) {
 			g.drawPolyline(getPoints());
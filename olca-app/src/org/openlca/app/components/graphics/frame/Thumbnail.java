@@ -43,13 +43,20 @@ public class Thumbnail extends Figure implements UpdateListener {
 
 	/**
 	 * This updates the Thumbnail by breaking the thumbnail {@link Image} into
-	 * several tiles and updating each tile individually.
+	 * several tiles and updating each tile individually. When the size and
+	 * location of the source figure did not change since the last update, only
+	 * the tiles that intersect with the damaged area of the source figure are
+	 * painted again; the other tiles are kept from the cached thumbnail image.
 	 */
 	class ThumbnailUpdater implements Runnable {
 		private static final int MIN_TILE_SIZE = 256;
 		private static final int MAX_NUMBER_OF_TILES = 16;
 		private int currentHTile, currentVTile;
 		private int hTiles, vTiles;
+		// the range of tiles that are updated in the current run
+		private int firstHTile, lastHTile, firstVTile, lastVTile;
+		// the source rectangle of the last update
+		private Rectangle renderedSource;
 		private Dimension tileSize;
 		private Dimension sourceSize; // the source size that was used for the
 		// tileSize computation
@@ -71,6 +78,7 @@ public class Thumbnail extends Figure implements UpdateListener {
 		public void deactivate() {
 			setActive(false);
 			stop();
+			renderedSource = null;
 			if (thumbnailImage != null) {
 				thumbnailImage.dispose();
 				thumbnailImage = null;
@@ -145,6 +153,34 @@ public class Thumbnail extends Figure implements UpdateListener {
 			// the first tile in horizontal and vertical direction
 			currentHTile = 0;
 			currentVTile = 0;
+			firstHTile = 0;
+			firstVTile = 0;
+			lastHTile = Math.max(0, hTiles - 1);
+			lastVTile = Math.max(0, vTiles - 1);
+		}
+
+		/**
+		 * Restricts the update to the tiles that intersect with the given area
+		 * of the source figure. The scales need to be set before this is called.
+		 */
+		private void restrictTiles(Rectangle area) {
+			if (tileSize.width <= 0 || tileSize.height <= 0)
+				return;
+			var p = getSourceRectangle().getLocation();
+			int x1 = (int) Math.floor((area.x - p.x) * getScaleX());
+			int y1 = (int) Math.floor((area.y - p.y) * getScaleY());
+			int x2 = (int) Math.ceil((area.right() - p.x) * getScaleX());
+			int y2 = (int) Math.ceil((area.bottom() - p.y) * getScaleY());
+			firstHTile = clamp(x1 / tileSize.width, lastHTile);
+			lastHTile = clamp(x2 / tileSize.width, lastHTile);
+			firstVTile = clamp(y1 / tileSize.height, lastVTile);
+			lastVTile = clamp(y2 / tileSize.height, lastVTile);
+			currentHTile = firstHTile;
+			currentVTile = firstVTile;
+		}
+
+		private int clamp(int tile, int max) {
+			return Math.max(0, Math.min(tile, max));
 		}
 
 		/**
@@ -202,21 +238,25 @@ public class Thumbnail extends Figure implements UpdateListener {
 			thumbnailGC.drawImage(tileImage, 0, 0, sx2 - sx1, sy2 - sy1, sx1,
 					sy1, sx2 - sx1, sy2 - sy1);
 
-			if (getCurrentHTile() < (hTiles - 1))
+			boolean done = false;
+			if (getCurrentHTile() < lastHTile)
 				setCurrentHTile(getCurrentHTile() + 1);
 			else {
-				setCurrentHTile(0);
-				if (getCurrentVTile() < (vTiles - 1))
+				setCurrentHTile(firstHTile);
+				if (getCurrentVTile() < lastVTile)
 					setCurrentVTile(getCurrentVTile() + 1);
-				else
-					setCurrentVTile(0);
+				else {
+					setCurrentVTile(firstVTile);
+					done = true;
+				}
 			}
 
-			if (getCurrentHTile() != 0 || getCurrentVTile() != 0) {
+			if (!done) {
 				Display.getCurrent().asyncExec(this);
 			} else if (isDirty()) {
-				setDirty(false);
-				Display.getCurrent().asyncExec(this);
+				// the source changed while updating; start again with the
+				// tiles of the new damaged area
+				restart();
 				repaint();
 			} else {
 				stop();
@@ -265,10 +305,18 @@ public class Thumbnail extends Figure implements UpdateListener {
 				return;
 
 			isRunning = true;
+			var damaged = dirtyArea;
+			dirtyArea = null;
 			setDirty(false);
 
 			resetTileValues();
 
+			var source = getSourceRectangle().getCopy();
+			boolean fullUpdate = damaged == null
+					|| !source.equals(renderedSource)
+					|| !targetSize.equals(thumbnailImageSize);
+			renderedSource = source;
+
 			if (!targetSize.equals(thumbnailImageSize)) {
 				resetThumbnailImage();
 			}
@@ -298,6 +346,10 @@ public class Thumbnail extends Figure implements UpdateListener {
 			setScales(targetSize.width / (float) sourceSize.width,
 					targetSize.height / (float) sourceSize.height);
 
+			if (!fullUpdate) {
+				restrictTiles(damaged);
+			}
+
 			Display.getCurrent().asyncExec(this);
 		}
 
@@ -363,6 +415,12 @@ public class Thumbnail extends Figure implements UpdateListener {
 	}
 
 	private boolean isDirty;
+	/**
+	 * The union of the damaged areas of the source figure since the last
+	 * update, in the coordinates of the source bounds; {@code null} if the
+	 * whole thumbnail needs to be updated.
+	 */
+	private Rectangle dirtyArea;
 	private float scaleX;
 	private float scaleY;
 
@@ -525,17 +583,46 @@ public class Thumbnail extends Figure implements UpdateListener {
 	 */
 	@SuppressWarnings("rawtypes")
 	public void notifyPainting(Rectangle damage, Map dirtyRegions) {
+		boolean changed = false;
 		for (Object o : dirtyRegions.keySet()) {
 			IFigure current = (IFigure) o;
 			while (current != null) {
 				if (current.equals(getSource())) {
-					setDirty(true);
-					repaint();
-					return;
+					addDirtyArea((IFigure) o, dirtyRegions.get(o));
+					changed = true;
+					break;
 				}
 				current = current.getParent();
 			}
 		}
+		if (changed) {
+			repaint();
+		}
+	}
+
+	/**
+	 * Adds the damaged region of the given figure to the dirty area of the
+	 * source. The region is given in the coordinates of the figure bounds, as
+	 * reported by the update manager.
+	 */
+	private void addDirtyArea(IFigure figure, Object region) {
+		boolean wasDirty = isDirty();
+		setDirty(true);
+		if (wasDirty && dirtyArea == null)
+			return; // a full update is pending anyway
+		var parent = figure.getParent();
+		var sourceParent = sourceFigure.getParent();
+		if (!(region instanceof Rectangle rect)
+				|| parent == null || sourceParent == null) {
+			dirtyArea = null;
+			return;
+		}
+		var area = rect.getCopy();
+		parent.translateToAbsolute(area);
+		sourceParent.translateToRelative(area);
+		// anti-aliased lines and borders can paint slightly outside
+		area.expand(2, 2);
+		dirtyArea = wasDirty ? dirtyArea.union(area) : area;
 	}
 
 	/**
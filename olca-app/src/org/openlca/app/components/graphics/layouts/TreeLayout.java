@@ -3,6 +3,7 @@ package org.openlca.app.components.graphics.layouts;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 
@@ -228,6 +229,7 @@ public class TreeLayout {
 							? parent.node.getAllTargetConnections()
 							: parent.node.getAllSourceConnections();
 					var children = new ArrayList<Component>();
+					var added = new HashSet<Component>();
 
 					// Create the list of children of parent.
 					for (var link : links) {
@@ -237,15 +239,15 @@ public class TreeLayout {
 						// Check if this child has not been already added by a neighbor, an
 						// ancestor or the root of the subtree itself.
 						if (!manager.mapNodeToVertex.containsKey(child)
-								&& !children.contains(child))
+								&& added.add(child))
 							children.add(child);
 					}
 
 					children.sort(Component::compareTo);
 
 					// Create the vertices of the filtered children.
-					for (var child : children) {
-						var index = children.indexOf(child);
+					for (int index = 0; index < children.size(); index++) {
+						var child = children.get(index);
 						var figure = manager.figureOf(child);
 						var size = manager.getConstrainedSize(figure);
 						var childVertex = new Vertex(child, figure, size, index);
@@ -254,7 +256,7 @@ public class TreeLayout {
 								|| manager.getConstraint(childVertex.figure) == null)  // see layout()
 							continue;
 						childVertex.setStartLocation(calculateStartLocation(childVertex));
-						if (children.indexOf(child) != 0)
+						if (index != 0)
 							childVertex.setPreviousSibling(
 									manager.mapNodeToVertex.get(children.get(index - 1)));
 
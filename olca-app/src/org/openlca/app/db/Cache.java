@@ -1,5 +1,12 @@
 package org.openlca.app.db;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openlca.app.collaboration.navigation.NavCache;
+import org.openlca.app.collaboration.util.ReferenceGraph;
+import org.openlca.app.navigation.elements.ModelIndex;
+import org.openlca.app.results.ResultCache;
+import org.openlca.app.search.SearchIndex;
 import org.openlca.core.database.EntityCache;
 import org.openlca.core.database.IDatabase;
 import org.openlca.core.matrix.cache.MatrixCache;
@@ -17,6 +24,11 @@ public final class Cache {
 	private static final AppCache appCache = new AppCache();
 	private static EntityCache entityCache;
 	private static MatrixCache matrixCache;
+	private static IDatabase db;
+
+	private static final AtomicLong evictions = new AtomicLong();
+	private static final AtomicLong dependentEvictions = new AtomicLong();
+	private static final AtomicLong fullEvictions = new AtomicLong();
 
 	private Cache() {
 	}
@@ -34,6 +46,9 @@ public final class Cache {
 		evictAll();
 		entityCache = null;
 		matrixCache = null;
+		db = null;
+		LibReaderPool.clear();
+		ResultCache.clear();
 	}
 
 	/**
@@ -45,6 +60,7 @@ public final class Cache {
 		close();
 		entityCache = EntityCache.create(database);
 		matrixCache = MatrixCache.createLazy(database);
+		db = database;
 	}
 
 	public static AppCache getAppCache() {
@@ -55,11 +71,18 @@ public final class Cache {
 		if (d == null)
 			return;
 		log.trace("evict {} with ID {}", d.getClass(), d.id);
+		SearchIndex.update(d);
+		ModelIndex.update(d);
+		ReferenceGraph.invalidate();
+		NavCache.update(d);
+		LinkingProperties.update(d);
+		LabelCache.update(d);
+		ResultCache.invalidate(d.type);
 		if (d.type == null)
 			evictAll(); // to be on the save side
-		else if (shouldEvictAll(d.type)) {
-			if (entityCache != null)
-				entityCache.invalidateAll();
+		else if (hasDependents(d.type)) {
+			evictEntity(d);
+			evictDependents(d);
 			evictFromMatrices(d);
 		} else {
 			evictEntity(d);
@@ -67,16 +90,79 @@ public final class Cache {
 		}
 	}
 
-	private static boolean shouldEvictAll(ModelType type) {
+	/**
+	 * Returns true if entities of the given type are referenced by other
+	 * entities in the entity cache, e.g. flows are referenced by the
+	 * exchanges of processes.
+	 */
+	private static boolean hasDependents(ModelType type) {
 		return type == ModelType.UNIT_GROUP
 				|| type == ModelType.FLOW
 				|| type == ModelType.FLOW_PROPERTY
 				|| type == ModelType.CATEGORY;
 	}
 
+	/**
+	 * Evicts the entities that reference the given entity from the entity
+	 * cache. If they cannot be resolved (e.g. for categories) or if there are
+	 * too many of them, the complete entity cache is invalidated.
+	 */
+	private static void evictDependents(Descriptor d) {
+		if (entityCache == null)
+			return;
+		var deps = CacheDependencies.of(db, d);
+		if (deps == null) {
+			log.trace("cannot evict dependents of {}; invalidate entity cache", d);
+			fullEvictions.incrementAndGet();
+			entityCache.invalidateAll();
+			return;
+		}
+		for (var e : deps.get().entrySet()) {
+			var clazz = e.getKey();
+			e.getValue().forEach(id -> {
+				entityCache.invalidate(clazz, id);
+				return true;
+			});
+		}
+		dependentEvictions.addAndGet(deps.size());
+		log.trace("evicted {} dependents of {}", deps.size(), d);
+	}
+
+	/**
+	 * Returns the eviction counters of the entity cache.
+	 */
+	public static Stats getStats() {
+		return new Stats(
+				evictions.get(),
+				dependentEvictions.get(),
+				fullEvictions.get());
+	}
+
+	/**
+	 * Eviction counters of the entity cache.
+	 *
+	 * @param evictions          the number of entities that were evicted
+	 *                           because they were changed
+	 * @param dependentEvictions the number of entities that were evicted
+	 *                           because they referenced a changed entity
+	 * @param fullEvictions      the number of times the entity cache was
+	 *                           invalidated completely
+	 */
+	public record Stats(
+			long evictions, long dependentEvictions, long fullEvictions) {
+	}
+
 	public static void evictAll() {
 		log.trace("evict all from caches");
+		SearchIndex.invalidate();
+		ModelIndex.invalidate();
+		ReferenceGraph.invalidate();
+		NavCache.invalidate();
+		LinkingProperties.invalidate();
+		LabelCache.invalidate();
+		ResultCache.invalidate(null);
 		if (entityCache != null) {
+			fullEvictions.incrementAndGet();
 			entityCache.invalidateAll();
 		}
 		if (matrixCache != null) {
@@ -84,9 +170,26 @@ public final class Cache {
 		}
 	}
 
+	/**
+	 * Invalidates the in-memory indices and cached results that depend on the
+	 * models of the given type, or on all models when the type is
+	 * {@code null}. This is called when the
+	 * navigation tree is refreshed, because many writers, e.g. the imports,
+	 * insert models directly into the database without calling
+	 * {@link #registerNew} or {@link #evict}.
+	 */
+	public static void invalidateIndices(ModelType type) {
+		log.trace("invalidate indices of type {}", type);
+		SearchIndex.invalidate(type);
+		ModelIndex.invalidate(type);
+		LinkingProperties.invalidate(type);
+		ResultCache.invalidate(type);
+	}
+
 	private static void evictEntity(Descriptor d) {
 		if (entityCache == null)
 			return;
+		evictions.incrementAndGet();
 		long id = d.id;
 		Class<?> clazz = d.getClass();
 		log.trace("evict from entity cache {} with id={}", clazz, id);
@@ -105,6 +208,13 @@ public final class Cache {
 	}
 
 	public static void registerNew(Descriptor descriptor) {
+		SearchIndex.put(descriptor);
+		ModelIndex.put(descriptor);
+		ReferenceGraph.invalidate();
+		NavCache.update(descriptor);
+		LinkingProperties.update(descriptor);
+		LabelCache.update(descriptor);
+		ResultCache.invalidate(descriptor.type);
 		if (matrixCache == null)
 			return;
 		log.trace("register new model {}", descriptor);
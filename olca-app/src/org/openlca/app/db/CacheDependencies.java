@@ -0,0 +1,193 @@
+package org.openlca.app.db;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.database.NativeSql;
+import org.openlca.core.model.Epd;
+import org.openlca.core.model.Flow;
+import org.openlca.core.model.FlowProperty;
+import org.openlca.core.model.ImpactCategory;
+import org.openlca.core.model.ImpactMethod;
+import org.openlca.core.model.Process;
+import org.openlca.core.model.ProductSystem;
+import org.openlca.core.model.Project;
+import org.openlca.core.model.Result;
+import org.openlca.core.model.RootEntity;
+import org.openlca.core.model.SocialIndicator;
+import org.openlca.core.model.UnitGroup;
+import org.openlca.core.model.descriptors.Descriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gnu.trove.set.hash.TLongHashSet;
+
+/**
+ * Collects the entities that reference a changed flow, flow property, or
+ * unit group and thus need to be evicted from the entity cache together with
+ * that entity. The references are resolved transitively, e.g. when a unit
+ * group changes, the flow properties that use that unit group, the flows that
+ * have these flow properties, and the processes and impact categories that
+ * use these flows are collected.
+ * <p>
+ * These entities are again held by aggregates like product systems (the
+ * reference process), impact methods (the impact categories), projects (the
+ * product systems of the variants), results, and EPDs (the results of the
+ * modules). There are only few of them in a database, so all aggregates are
+ * evicted instead of resolving these references. Changes of categories, which
+ * are held by all models in their sub-tree, are not resolved at all; for them
+ * {@link #of} returns {@code null} so that the complete cache is invalidated.
+ * This is also the case when a query fails, e.g. because of an unexpected
+ * database schema.
+ */
+class CacheDependencies {
+
+	/**
+	 * When a change has more dependents than this limit, it is cheaper to
+	 * invalidate the complete cache.
+	 */
+	static final int LIMIT = 50_000;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+	private final IDatabase db;
+	private final Map<Class<? extends RootEntity>, TLongHashSet> ids
+			= new HashMap<>();
+	private int count;
+	private boolean exceeded;
+
+	private CacheDependencies(IDatabase db) {
+		this.db = db;
+	}
+
+	/**
+	 * Returns the dependents of the given descriptor or {@code null} when
+	 * they cannot be resolved (see above) or when there are more than
+	 * {@link #LIMIT} dependents.
+	 */
+	static CacheDependencies of(IDatabase db, Descriptor d) {
+		var deps = new CacheDependencies(db);
+		if (db == null || d == null || d.type == null)
+			return deps;
+		switch (d.type) {
+			case UNIT_GROUP -> {
+				deps.ofUnitGroup(d.id);
+				deps.ofSocialIndicators();
+			}
+			case FLOW_PROPERTY -> {
+				deps.ofFlowProperty(d.id);
+				deps.ofSocialIndicators();
+			}
+			case FLOW -> deps.ofFlow(d.id);
+			default -> {
+				return null;
+			}
+		}
+		deps.ofAggregates();
+		return deps.exceeded ? null : deps;
+	}
+
+	/**
+	 * Returns the collected dependents, grouped by their entity types.
+	 */
+	Map<Class<? extends RootEntity>, TLongHashSet> get() {
+		return ids;
+	}
+
+	int size() {
+		return count;
+	}
+
+	private void ofUnitGroup(long id) {
+		var props = query(FlowProperty.class,
+				"select id from tbl_flow_properties where f_unit_group = " + id);
+		for (var prop : props) {
+			if (exceeded)
+				return;
+			ofFlowProperty(prop);
+		}
+		var units = "select id from tbl_units where f_unit_group = " + id;
+		query(Process.class, "select distinct f_owner from tbl_exchanges "
+				+ "where f_unit in (" + units + ")");
+		query(ImpactCategory.class, "select distinct f_impact_category "
+				+ "from tbl_impact_factors where f_unit in (" + units + ")");
+	}
+
+	private void ofFlowProperty(long id) {
+		query(UnitGroup.class, "select id from tbl_unit_groups "
+				+ "where f_default_flow_property = " + id);
+		var flows = query(Flow.class, "select distinct f_owner from "
+				+ "tbl_flow_property_factors where f_flow_property = " + id);
+		for (var flow : flows) {
+			if (exceeded)
+				return;
+			ofFlow(flow);
+		}
+	}
+
+	private void ofFlow(long id) {
+		query(Process.class, "select distinct f_owner from tbl_exchanges "
+				+ "where f_flow = " + id);
+		query(ImpactCategory.class, "select distinct f_impact_category "
+				+ "from tbl_impact_factors where f_flow = " + id);
+	}
+
+	/**
+	 * Social indicators hold the flow property and unit of their activity
+	 * variable, and they are held by the social aspects of processes.
+	 */
+	private void ofSocialIndicators() {
+		query(SocialIndicator.class, "select id from tbl_social_indicators");
+		query(Process.class,
+				"select distinct f_process from tbl_social_aspects");
+	}
+
+	/**
+	 * Adds all aggregates that can hold collected dependents. These are
+	 * evicted completely because there are only few of them.
+	 */
+	private void ofAggregates() {
+		query(ProductSystem.class, "select id from tbl_product_systems");
+		query(ImpactMethod.class, "select id from tbl_impact_methods");
+		query(Project.class, "select id from tbl_projects");
+		query(Result.class, "select id from tbl_results");
+		query(Epd.class, "select id from tbl_epds");
+	}
+
+	/**
+	 * Runs the given query, adds the resulting IDs as dependents of the given
+	 * type, and returns the IDs that were not collected before.
+	 */
+	private List<Long> query(Class<? extends RootEntity> type, String sql) {
+		var added = new ArrayList<Long>();
+		if (exceeded)
+			return added;
+		try {
+			NativeSql.on(db).query(sql, r -> {
+				long id = r.getLong(1);
+				if (id != 0 && add(type, id)) {
+					added.add(id);
+				}
+				return !exceeded;
+			});
+		} catch (Exception e) {
+			// the dependents are incomplete; fall back to a full invalidation
+			log.error("failed to collect cache dependencies: " + sql, e);
+			exceeded = true;
+		}
+		return added;
+	}
+
+	private boolean add(Class<? extends RootEntity> type, long id) {
+		var set = ids.computeIfAbsent(type, t -> new TLongHashSet());
+		if (!set.add(id))
+			return false;
+		count++;
+		if (count > LIMIT) {
+			exceeded = true;
+		}
+		return true;
+	}
+}
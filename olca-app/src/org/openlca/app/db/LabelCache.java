@@ -0,0 +1,213 @@
+package org.openlca.app.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.database.NativeSql;
+import org.openlca.core.model.descriptors.Descriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gnu.trove.map.hash.TLongLongHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+
+/**
+ * A cache of the strings that are used in the labels of tables and trees:
+ * the codes of locations, the full paths of categories, and the reference
+ * units of flow properties. Label providers call these lookups for every
+ * cell that is painted, and resolving them via the entity cache would load
+ * the complete entities. Instead, each table of strings is read in a single
+ * query when it is first needed, mapped by the IDs of the respective models.
+ * Equal strings are shared, so that, e.g., the many category paths with the
+ * same parent do not hold duplicate names.
+ * <p>
+ * The tables are invalidated via the hooks in {@link Cache} when a model of
+ * the respective type is changed, created, or deleted.
+ */
+public final class LabelCache {
+
+	private static final Logger log = LoggerFactory.getLogger(LabelCache.class);
+
+	private static IDatabase db;
+	private static TLongObjectHashMap<String> locationCodes;
+	private static TLongObjectHashMap<String> categoryPaths;
+	private static TLongObjectHashMap<String> refUnits;
+
+	private LabelCache() {
+	}
+
+	/**
+	 * Returns the code of the location with the given ID, or {@code null} if
+	 * there is no such location or it has no code.
+	 */
+	public static synchronized String locationCode(long id) {
+		if (!sync())
+			return null;
+		if (locationCodes == null) {
+			locationCodes = loadLocationCodes();
+		}
+		return locationCodes.get(id);
+	}
+
+	/**
+	 * Returns the full path of the category with the given ID, e.g.
+	 * {@code Elementary flows/Emission to air/unspecified}, or {@code null}
+	 * if there is no such category.
+	 */
+	public static synchronized String categoryPath(long id) {
+		if (!sync())
+			return null;
+		if (categoryPaths == null) {
+			categoryPaths = loadCategoryPaths();
+		}
+		return categoryPaths.get(id);
+	}
+
+	/**
+	 * Returns the name of the reference unit of the flow property with the
+	 * given ID, or {@code null} if it cannot be found.
+	 */
+	public static synchronized String refUnit(long flowPropertyId) {
+		if (!sync())
+			return null;
+		if (refUnits == null) {
+			refUnits = loadRefUnits();
+		}
+		return refUnits.get(flowPropertyId);
+	}
+
+	/**
+	 * Invalidates the cached strings that can be affected by a change of the
+	 * given model.
+	 */
+	static synchronized void update(Descriptor d) {
+		if (d == null || d.type == null) {
+			invalidate();
+			return;
+		}
+		switch (d.type) {
+			case LOCATION -> locationCodes = null;
+			case CATEGORY -> categoryPaths = null;
+			case FLOW_PROPERTY, UNIT_GROUP -> refUnits = null;
+			default -> {
+			}
+		}
+	}
+
+	static synchronized void invalidate() {
+		db = null;
+		locationCodes = null;
+		categoryPaths = null;
+		refUnits = null;
+	}
+
+	/**
+	 * Makes sure that the cached strings belong to the active database.
+	 * Returns false if there is no active database.
+	 */
+	private static boolean sync() {
+		var current = Database.get();
+		if (current == null)
+			return false;
+		if (current != db) {
+			invalidate();
+			db = current;
+		}
+		return true;
+	}
+
+	private static TLongObjectHashMap<String> loadLocationCodes() {
+		var codes = new TLongObjectHashMap<String>();
+		var pool = new HashMap<String, String>();
+		query("select id, code from tbl_locations", r -> {
+			var code = r.getString(2);
+			if (code != null) {
+				codes.put(r.getLong(1), intern(pool, code));
+			}
+		});
+		return codes;
+	}
+
+	private static TLongObjectHashMap<String> loadCategoryPaths() {
+		var names = new TLongObjectHashMap<String>();
+		var parents = new TLongLongHashMap();
+		var pool = new HashMap<String, String>();
+		query("select id, name, f_category from tbl_categories", r -> {
+			long id = r.getLong(1);
+			var name = r.getString(2);
+			names.put(id, intern(pool, name != null ? name : ""));
+			long parent = r.getLong(3);
+			if (parent != 0) {
+				parents.put(id, parent);
+			}
+		});
+
+		var paths = new TLongObjectHashMap<String>(names.size());
+		for (long id : names.keys()) {
+			pathOf(id, names, parents, paths, 0);
+		}
+		return paths;
+	}
+
+	private static String pathOf(
+			long id,
+			TLongObjectHashMap<String> names,
+			TLongLongHashMap parents,
+			TLongObjectHashMap<String> paths,
+			int depth
+	) {
+		var path = paths.get(id);
+		if (path != null)
+			return path;
+		var name = names.get(id);
+		if (name == null)
+			return null;
+		// the depth check is a guard against invalid cycles in the data
+		String parentPath = parents.containsKey(id) && depth < 100
+				? pathOf(parents.get(id), names, parents, paths, depth + 1)
+				: null;
+		path = parentPath != null
+				? parentPath + "/" + name
+				: name;
+		paths.put(id, path);
+		return path;
+	}
+
+	private static TLongObjectHashMap<String> loadRefUnits() {
+		var units = new TLongObjectHashMap<String>();
+		var pool = new HashMap<String, String>();
+		var sql = "select prop.id, unit.name from tbl_flow_properties prop "
+				+ "inner join tbl_unit_groups ug on prop.f_unit_group = ug.id "
+				+ "inner join tbl_units unit on ug.f_reference_unit = unit.id";
+		query(sql, r -> {
+			var name = r.getString(2);
+			if (name != null) {
+				units.put(r.getLong(1), intern(pool, name));
+			}
+		});
+		return units;
+	}
+
+	private static String intern(HashMap<String, String> pool, String s) {
+		var shared = pool.putIfAbsent(s, s);
+		return shared != null ? shared : s;
+	}
+
+	private static void query(String sql, RowHandler fn) {
+		try {
+			NativeSql.on(db).query(sql, r -> {
+				fn.accept(r);
+				return true;
+			});
+		} catch (Exception e) {
+			log.error("failed to load labels: " + sql, e);
+		}
+	}
+
+	@FunctionalInterface
+	private interface RowHandler {
+		void accept(ResultSet r) throws SQLException;
+	}
+}
@@ -0,0 +1,235 @@
+package org.openlca.app.db;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.openlca.app.App;
+import org.openlca.app.licence.LibrarySession;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.library.Library;
+import org.openlca.core.library.reader.LibReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A pool of library readers for the active database. Creating a library
+ * reader includes the license checks and the setup of the decryption, and a
+ * reader caches the matrices and indices it has read from the library. Thus,
+ * the readers are kept between calculations so that repeated calculations
+ * with the same libraries do not need to set up and read everything again.
+ * <p>
+ * A pooled reader is reused as long as the library folder, the library
+ * session, and the matrix solver did not change. The pool is limited by the number of readers and
+ * by the total size of the library folders, which is an estimate of the
+ * memory the readers can take when they cached their data; when a limit is
+ * exceeded, the least recently used readers are removed. The pool is cleared
+ * when the database is closed.
+ * <p>
+ * The library readers are not known to be thread safe: they fill their
+ * caches lazily, and with libraries, the result providers read from them
+ * lazily as long as a result is open. Thus, a pooled reader is leased to one
+ * user at a time. When a reader is requested while it is leased, a new reader
+ * that is not pooled is created instead. A lease ends when it is released
+ * explicitly. For calculations, the leases are bound to an owner, first the
+ * reader registry of the calculation and then the calculated result, and are
+ * released together when the result is disposed.
+ */
+class LibReaderPool {
+
+	static final int MAX_READERS = 8;
+
+	/** The maximum total size of the pooled libraries in bytes. */
+	static final long MAX_BYTES = Runtime.getRuntime().maxMemory() / 4;
+
+	private static final Logger log = LoggerFactory.getLogger(LibReaderPool.class);
+	private static final LinkedHashMap<String, Entry> entries =
+			new LinkedHashMap<>(16, 0.75f, true);
+	private static IDatabase db;
+
+	private LibReaderPool() {
+	}
+
+	/**
+	 * Leases the pooled reader of the given library or creates a new one with
+	 * the given function if there is no valid reader in the pool. If the
+	 * pooled reader is leased by another user, a new reader is returned that
+	 * is not pooled. The lease must be ended with {@link #release}, or, when
+	 * it was bound to an owner with {@link #bind}, with {@link #releaseAll}.
+	 */
+	static synchronized Optional<LibReader> lease(
+			IDatabase database, Library lib, Supplier<Optional<LibReader>> fn) {
+		if (database == null || lib == null)
+			return Optional.empty();
+		if (database != db) {
+			entries.clear();
+			db = database;
+		}
+
+		var stamp = stampOf(lib);
+		var entry = entries.get(lib.name());
+		if (entry != null && entry.stamp.equals(stamp)) {
+			if (entry.leased) {
+				log.trace("reader of library {} is leased; create a new one", lib.name());
+				return fn.get();
+			}
+			entry.leased = true;
+			return Optional.of(entry.reader);
+		}
+
+		var reader = fn.get();
+		if (reader.isEmpty()) {
+			entries.remove(lib.name());
+			return reader;
+		}
+		log.trace("add reader of library {} to the pool", lib.name());
+		var next = new Entry(reader.get(), stamp, sizeOf(lib.folder()));
+		next.leased = true;
+		entries.put(lib.name(), next);
+		return reader;
+	}
+
+	/**
+	 * Binds the leases of the given readers to the given owner, so that they
+	 * can be ended together with {@link #releaseAll}. Readers that are not
+	 * pooled are ignored.
+	 */
+	static synchronized void bind(Collection<LibReader> readers, Object owner) {
+		for (var e : entries.values()) {
+			if (e.leased && readers.contains(e.reader)) {
+				e.owner = owner;
+			}
+		}
+	}
+
+	/**
+	 * Moves the leases that are bound to the given owner to the next owner,
+	 * e.g. from the reader registry of a calculation to its result.
+	 */
+	static synchronized void rebind(Object owner, Object next) {
+		for (var e : entries.values()) {
+			if (e.leased && e.owner == owner) {
+				e.owner = next;
+			}
+		}
+	}
+
+	/**
+	 * Ends the leases that are bound to the given owner.
+	 */
+	static synchronized void releaseAll(Object owner) {
+		for (var e : entries.values()) {
+			if (e.leased && e.owner == owner) {
+				e.leased = false;
+				e.owner = null;
+			}
+		}
+	}
+
+	/**
+	 * Ends the lease of the given reader. Nothing is done when the reader is
+	 * not pooled.
+	 */
+	static synchronized void release(LibReader reader) {
+		for (var e : entries.values()) {
+			if (e.reader == reader) {
+				e.leased = false;
+				e.owner = null;
+			}
+		}
+	}
+
+	/**
+	 * Removes the least recently used readers until the pool is within its
+	 * limits. The readers of the given libraries are kept, as they are needed
+	 * for a running calculation.
+	 */
+	static synchronized void trim(Collection<Library> needed) {
+		var keep = new HashSet<String>();
+		for (var lib : needed) {
+			keep.add(lib.name());
+		}
+		long total = 0;
+		for (var e : entries.values()) {
+			total += e.size;
+		}
+		var it = entries.entrySet().iterator();
+		while (it.hasNext()
+				&& (entries.size() > MAX_READERS || total > MAX_BYTES)) {
+			var next = it.next();
+			if (keep.contains(next.getKey()))
+				continue;
+			log.trace("remove reader of library {} from the pool", next.getKey());
+			total -= next.getValue().size;
+			it.remove();
+		}
+	}
+
+	static synchronized void evict(String library) {
+		if (library != null) {
+			entries.remove(library);
+		}
+	}
+
+	static synchronized void clear() {
+		entries.clear();
+		db = null;
+	}
+
+	/**
+	 * The state of a library that decides whether a pooled reader can be
+	 * reused: the modification time of the library folder, the matrix solver
+	 * the readers are created with, and the stored session of the library, if
+	 * any.
+	 */
+	private static String stampOf(Library lib) {
+		var solver = App.getSolver();
+		var session = LibrarySession.retrieveSession(lib.name())
+				.map(s -> s.toJson())
+				.orElse("");
+		return lib.folder().lastModified()
+				+ "/" + solver.getClass().getName()
+				+ "@" + System.identityHashCode(solver)
+				+ "/" + session;
+	}
+
+	private static long sizeOf(File dir) {
+		if (dir == null || !dir.isDirectory())
+			return 0;
+		var files = dir.listFiles();
+		if (files == null)
+			return 0;
+		long size = 0;
+		for (var file : files) {
+			if (file.isFile()) {
+				size += file.length();
+			}
+		}
+		return size;
+	}
+
+	private static class Entry {
+
+		final LibReader reader;
+		final String stamp;
+		final long size;
+
+		/** True when the reader is leased to a user. */
+		boolean leased;
+
+		/**
+		 * The owner to which the lease is bound, or {@code null} if the lease
+		 * is released via its reader.
+		 */
+		Object owner;
+
+		Entry(LibReader reader, String stamp, long size) {
+			this.reader = reader;
+			this.stamp = stamp;
+			this.size = size;
+		}
+	}
+}
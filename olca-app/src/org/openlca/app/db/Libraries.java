@@ -102,19 +102,61 @@ public final class Libraries {
 	/**
 	 * Returns the library readers for the currently active database that are
 	 * needed to run a calculation. Returns an empty option if this fails or
-	 * when no libraries with matrices are mounted to that database.
+	 * when no libraries with matrices are mounted to that database. The
+	 * readers are leased from the reader pool, so that the data they already
+	 * read are reused in repeated calculations. The leases are bound to the
+	 * returned registry: a registry and its readers must be used by a single
+	 * calculation only; parallel calculations need to request their own
+	 * registries. When the calculation is done, the leases need to be ended
+	 * with {@link #releaseReaders} or, when the result reads from the
+	 * libraries as long as it is open, moved to the result with
+	 * {@link #bindReaders} and ended when the result is disposed. See
+	 * {@link LibReaderPool}.
 	 */
 	public static Optional<LibReaderRegistry> readersForCalculation() {
 		var libs = forCalculation();
 		if (libs.isEmpty())
 			return Optional.empty();
 
+		var db = Database.get();
 		var readers = new ArrayList<LibReader>();
-		libs.get().forEach(lib -> readerOf(lib).ifPresent(readers::add));
+		libs.get().forEach(lib -> LibReaderPool.lease(db, lib, () -> readerOf(lib))
+				.ifPresent(readers::add));
+		if (readers.isEmpty())
+			return Optional.empty();
+		var registry = LibReaderRegistry.of(readers);
+		LibReaderPool.bind(readers, registry);
+		LibReaderPool.trim(libs.get());
+		return Optional.of(registry);
+	}
 
-		return readers.isEmpty()
-				? Optional.empty()
-				: Optional.of(LibReaderRegistry.of(readers));
+	/**
+	 * Moves the reader leases of the given registry to the given result, so
+	 * that they end when the result is disposed. Nothing is done when the
+	 * registry is {@code null}.
+	 */
+	public static void bindReaders(LibReaderRegistry registry, Object result) {
+		if (registry == null || result == null)
+			return;
+		LibReaderPool.rebind(registry, result);
+	}
+
+	/**
+	 * Ends the reader leases of the given registry or result. This should be
+	 * called when the calculation failed or its result was disposed.
+	 */
+	public static void releaseReaders(Object owner) {
+		if (owner == null)
+			return;
+		LibReaderPool.releaseAll(owner);
+	}
+
+	/**
+	 * Removes the pooled reader of the given library, e.g. when the library
+	 * was deleted.
+	 */
+	public static void evictReader(String library) {
+		LibReaderPool.evict(library);
 	}
 
 	public static Optional<Set<Library>> forCalculation() {
@@ -185,10 +227,18 @@ public final class Libraries {
 		var db = Database.get();
 		if (db == null)
 			return;
-		var lib = readerOf(e.library).orElse(null);
+		var lib = Workspace.getLibraryDir().getLibrary(e.library).orElse(null);
 		if (lib == null)
 			return;
-		fn.accept(db, lib);
+		var reader = LibReaderPool.lease(db, lib, () -> readerOf(lib))
+				.orElse(null);
+		if (reader == null)
+			return;
+		try {
+			fn.accept(db, reader);
+		} finally {
+			LibReaderPool.release(reader);
+		}
 	}
 
 	public static Library importFromFile(File file) {
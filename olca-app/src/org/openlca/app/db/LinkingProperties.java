@@ -1,13 +1,19 @@
 package org.openlca.app.db;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.LongConsumer;
 
 import org.openlca.core.database.IDatabase;
 import org.openlca.core.database.NativeSql;
-import org.openlca.core.matrix.cache.FlowTable;
 import org.openlca.core.matrix.cache.ProcessTable;
-import org.openlca.core.model.FlowType;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.Process;
+import org.openlca.core.model.descriptors.Descriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,75 +32,225 @@ public class LinkingProperties {
 	 */
 	public final Set<Long> processesWithoutProviders = new HashSet<>();
 
+	/**
+	 * The analysis state of the active database. It is created on the first
+	 * check and then updated incrementally when processes are saved or
+	 * deleted; see {@link #update(Descriptor)}.
+	 */
+	private static State state;
+
+	/**
+	 * The IDs of the processes that were changed while a new state was
+	 * initialized; these changes are applied to the new state before it is
+	 * published. This is {@code null} when no state is initialized or when
+	 * the state that is initialized was invalidated in the meantime.
+	 */
+	private static List<Long> pending;
+
+	/** Only one state is initialized at a time. */
+	private static final Object initLock = new Object();
+
+	/**
+	 * Returns the linking properties of the given database. The analysis is
+	 * cached for the database, so that only the first call is expensive. The
+	 * returned object is a copy that can be modified by the caller.
+	 */
 	public static LinkingProperties check(IDatabase db) {
-		LinkingProperties props = new LinkingProperties();
 		if (db == null)
-			return props;
-		new Check(db).doIt(props);
-		return props;
+			return new LinkingProperties();
+		synchronized (initLock) {
+			synchronized (LinkingProperties.class) {
+				if (state != null && state.db == db)
+					return state.snapshot();
+				pending = new ArrayList<>();
+			}
+
+			// the initialization runs outside of the class lock so that the
+			// cache hooks are not blocked; changes that arrive in the
+			// meantime are recorded and replayed
+			var s = new State(db);
+			s.init();
+			synchronized (LinkingProperties.class) {
+				var changes = pending;
+				pending = null;
+				if (changes != null) {
+					for (long processId : changes) {
+						s.updateProcess(processId);
+					}
+					state = s;
+				}
+			}
+			return s.snapshot();
+		}
+	}
+
+	/**
+	 * Updates the cached analysis when the given model was saved, created, or
+	 * deleted. Changes of processes are applied incrementally; changes of
+	 * flows invalidate the cached analysis because the flow type decides
+	 * which exchanges can be linked. Changes of product systems and results
+	 * also invalidate it, as these can be providers too.
+	 */
+	static synchronized void update(Descriptor d) {
+		if (d == null)
+			return;
+		if (d.type == ModelType.PROCESS) {
+			if (pending != null) {
+				pending.add(d.id);
+			}
+			if (state != null) {
+				state.updateProcess(d.id);
+			}
+			return;
+		}
+		if (affects(d.type)) {
+			invalidate();
+		}
+	}
+
+	/**
+	 * Drops the cached analysis; it is recalculated on the next check.
+	 */
+	static synchronized void invalidate() {
+		state = null;
+		pending = null;
+	}
+
+	/**
+	 * Drops the cached analysis if it depends on models of the given type,
+	 * or in any case when the type is {@code null}.
+	 */
+	static synchronized void invalidate(ModelType type) {
+		if (type == ModelType.PROCESS || affects(type)) {
+			invalidate();
+		}
+	}
+
+	private static boolean affects(ModelType type) {
+		return type == null
+				|| type == ModelType.FLOW
+				|| type == ModelType.PRODUCT_SYSTEM
+				|| type == ModelType.RESULT;
 	}
 
-	private static class Check {
+	private static class State {
+
+		private static final String LINKABLE =
+				"((e.is_input = 1 and f.flow_type = 'PRODUCT_FLOW') "
+						+ "or (e.is_input = 0 and f.flow_type = 'WASTE_FLOW'))";
+
+		private static final String PROVIDING =
+				"((e.is_input = 0 and f.flow_type = 'PRODUCT_FLOW') "
+						+ "or (e.is_input = 1 and f.flow_type = 'WASTE_FLOW'))";
+
+		/**
+		 * Like in the process table, a default provider can be a process, a
+		 * product system, or a result. The IDs of these are unique across
+		 * the tables.
+		 */
+		private static final String PROVIDER_JOINS =
+				"left join tbl_processes p on e.f_default_provider = p.id "
+						+ "left join tbl_product_systems s on e.f_default_provider = s.id "
+						+ "left join tbl_results r on e.f_default_provider = r.id ";
+
+		private static final String NO_PROVIDER =
+				"p.id is null and s.id is null and r.id is null";
 
 		final IDatabase db;
-		final FlowTable flowTypes;
-		final ProcessTable processes;
 
-		Check(IDatabase db) {
+		/** flow ID -> IDs of the providers of that flow */
+		final Map<Long, Set<Long>> providers = new HashMap<>();
+		/** process ID -> IDs of the flows it provides */
+		final Map<Long, Set<Long>> providedFlows = new HashMap<>();
+		final Set<Long> unlinked = new HashSet<>();
+
+		State(IDatabase db) {
 			this.db = db;
-			flowTypes = FlowTable.create(db);
-			processes = ProcessTable.create(db);
 		}
 
-		void doIt(LinkingProperties props) {
-			checkMultiProviders(props);
-			checkUnlinkedProcesses(props);
+		void init() {
+			var processes = ProcessTable.create(db);
+			for (var techFlow : processes.getProviders()) {
+				addProvider(techFlow.flowId(), techFlow.providerId());
+			}
+			String sql = "select distinct e.f_owner from tbl_exchanges e "
+					+ "inner join tbl_flows f on e.f_flow = f.id "
+					+ PROVIDER_JOINS
+					+ "where " + LINKABLE + " and " + NO_PROVIDER;
+			query(sql, unlinked::add);
 		}
 
-		void checkUnlinkedProcesses(LinkingProperties props) {
-			try {
-				String sql = "select f_owner, f_flow, is_input, f_default_provider "
-						+ " from tbl_exchanges";
-				NativeSql.on(db).query(sql, r -> {
-					long flowID = r.getLong(2);
-					FlowType type = flowTypes.type(flowID);
-					boolean isInput = r.getBoolean(3);
-					if (!canHaveProvider(type, isInput))
-						return true;
-					long providerID = r.getLong(4);
-					if (providerID == 0
-							|| processes.getType(providerID) == null) {
-						props.processesWithoutProviders.add(r.getLong(1));
-					}
-					return true;
-				});
-			} catch (Exception e) {
-				error("Failed to scan exchanges table", e);
+		synchronized LinkingProperties snapshot() {
+			var props = new LinkingProperties();
+			props.processesWithoutProviders.addAll(unlinked);
+			for (var e : providers.entrySet()) {
+				if (e.getValue().size() > 1) {
+					props.multiProviderFlows.add(e.getKey());
+				}
 			}
+			return props;
 		}
 
-		void checkMultiProviders(LinkingProperties props) {
-			for (var products : processes.getProviders()) {
-				long flowID = products.flowId();
-				var providers = processes.getProviders(flowID);
-				if (providers != null && providers.size() > 1) {
-					props.multiProviderFlows.add(flowID);
+		synchronized void updateProcess(long processId) {
+
+			// update the provider flows of the process
+			var oldFlows = providedFlows.remove(processId);
+			if (oldFlows != null) {
+				for (var flowId : oldFlows) {
+					var set = providers.get(flowId);
+					if (set == null)
+						continue;
+					set.remove(processId);
+					if (set.isEmpty()) {
+						providers.remove(flowId);
+					}
 				}
 			}
-		}
+			String sql = "select distinct e.f_flow from tbl_exchanges e "
+					+ "inner join tbl_flows f on e.f_flow = f.id "
+					+ "where e.f_owner = " + processId + " and " + PROVIDING;
+			query(sql, flowId -> addProvider(flowId, processId));
+
+			// check the unlinked exchanges of the process
+			unlinked.remove(processId);
+			sql = "select count(*) from tbl_exchanges e "
+					+ "inner join tbl_flows f on e.f_flow = f.id "
+					+ PROVIDER_JOINS
+					+ "where e.f_owner = " + processId
+					+ " and " + LINKABLE + " and " + NO_PROVIDER;
+			query(sql, count -> {
+				if (count > 0) {
+					unlinked.add(processId);
+				}
+			});
 
-		boolean canHaveProvider(FlowType type, boolean isInput) {
-			if (isInput && type == FlowType.PRODUCT_FLOW)
-				return true;
-			if (!isInput && type == FlowType.WASTE_FLOW)
-				return true;
-			return false;
+			// when the process was deleted, the processes that used it as
+			// default provider are not linked anymore
+			boolean exists = db.getDescriptor(Process.class, processId) != null;
+			if (!exists) {
+				sql = "select distinct f_owner from tbl_exchanges "
+						+ "where f_default_provider = " + processId;
+				query(sql, unlinked::add);
+			}
 		}
 
-		void error(String message, Exception e) {
-			Logger log = LoggerFactory.getLogger(Check.class);
-			log.error(message, e);
+		private void addProvider(long flowId, long processId) {
+			providers.computeIfAbsent(flowId, k -> new HashSet<>())
+					.add(processId);
+			providedFlows.computeIfAbsent(processId, k -> new HashSet<>())
+					.add(flowId);
 		}
 
+		private void query(String sql, LongConsumer fn) {
+			try {
+				NativeSql.on(db).query(sql, r -> {
+					fn.accept(r.getLong(1));
+					return true;
+				});
+			} catch (Exception e) {
+				Logger log = LoggerFactory.getLogger(LinkingProperties.class);
+				log.error("Failed to scan exchanges table", e);
+			}
+		}
 	}
 }
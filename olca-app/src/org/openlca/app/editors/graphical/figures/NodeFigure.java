@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.Graphics;
 import org.eclipse.draw2d.GridData;
 import org.eclipse.draw2d.GridLayout;
 import org.eclipse.draw2d.ImageFigure;
@@ -76,6 +77,28 @@ public class NodeFigure extends ComponentFigure {
 		}
 	}
 
+	/**
+	 * Below the detail zoom, the node is painted as a plain box with its
+	 * theme background and its border, which keeps the color of its analysis
+	 * group; the header, the exchanges, and the borders of the child figures
+	 * are not painted then.
+	 */
+	@Override
+	public void paint(Graphics g) {
+		if (hasDetails(g)) {
+			super.paint(g);
+			return;
+		}
+		var theme = node.getGraph().getEditor().getTheme();
+		var box = node.getThemeBox();
+		var bounds = getBounds().getResized(-1, -1);
+		g.setBackgroundColor(theme.boxBackgroundColor(box));
+		g.fillRectangle(bounds);
+		g.setForegroundColor(borderColor());
+		g.setLineWidth(theme.boxBorderWidth(box));
+		g.drawRectangle(bounds);
+	}
+
 
 	class NodeHeader extends Figure {
 
@@ -16,6 +16,8 @@ import org.openlca.core.model.Process;
 import org.openlca.core.model.ProcessLink;
 import org.openlca.core.model.ProductSystem;
 
+import gnu.trove.map.hash.TLongObjectHashMap;
+
 import static org.eclipse.draw2d.PositionConstants.EAST;
 
 
@@ -35,6 +37,15 @@ public class Graph extends BaseComponent {
 	private final Process referenceProcess;
 	private Node referenceNode;
 
+	/**
+	 * The nodes of the graph indexed by their process IDs. The index is
+	 * maintained when children are added to or removed from the graph, so
+	 * that the commands can look up nodes in constant time when they expand
+	 * or link processes of large product systems.
+	 */
+	private final TLongObjectHashMap<Node> nodeIndex = new TLongObjectHashMap<>();
+	private List<Node> nodes;
+
 	public Graph(GraphEditor editor) {
 		this.editor = editor;
 		var system = editor.getProductSystem();
@@ -43,11 +54,50 @@ public class Graph extends BaseComponent {
 	}
 
 	public Node getNode(long id) {
-		for (var node : getNodes()) {
-			if (node.descriptor != null && node.descriptor.id == id)
-				return node;
+		return nodeIndex.get(id);
+	}
+
+	@Override
+	public void addChild(Component child, int index) {
+		index(child);
+		super.addChild(child, index);
+	}
+
+	@Override
+	public void addChildQuietly(Component child) {
+		index(child);
+		super.addChildQuietly(child);
+	}
+
+	@Override
+	public boolean removeChild(Component child) {
+		unindex(child);
+		return super.removeChild(child);
+	}
+
+	@Override
+	public boolean removeChildQuietly(Component child) {
+		unindex(child);
+		return super.removeChildQuietly(child);
+	}
+
+	private void index(Component child) {
+		if (!(child instanceof Node node))
+			return;
+		nodes = null;
+		if (node.descriptor != null && !nodeIndex.containsKey(node.descriptor.id)) {
+			nodeIndex.put(node.descriptor.id, node);
+		}
+	}
+
+	private void unindex(Component child) {
+		if (!(child instanceof Node node))
+			return;
+		nodes = null;
+		if (node.descriptor != null
+				&& nodeIndex.get(node.descriptor.id) == node) {
+			nodeIndex.remove(node.descriptor.id);
 		}
-		return null;
 	}
 
 	public GraphLink getLink(ProcessLink processLink) {
@@ -112,10 +162,13 @@ public class Graph extends BaseComponent {
 	 * @return Only return the Node children of the graph.
 	 */
 	public List<Node> getNodes() {
-		return getChildren().stream()
-				.filter(child -> child instanceof Node)
-				.map(child -> (Node) child)
-				.toList();
+		if (nodes == null) {
+			nodes = getChildren().stream()
+					.filter(child -> child instanceof Node)
+					.map(child -> (Node) child)
+					.toList();
+		}
+		return nodes;
 	}
 
 	/**
@@ -35,6 +35,8 @@ import org.openlca.core.model.descriptors.ProductSystemDescriptor;
 import org.openlca.core.model.descriptors.ResultDescriptor;
 import org.openlca.core.model.descriptors.RootDescriptor;
 
+import gnu.trove.set.hash.TLongHashSet;
+
 /**
  * A {@link Node} represents a unit process, a library process, a result
  * or a product system with its list of input or output flows (see
@@ -250,14 +252,14 @@ public class Node extends MinMaxComponent {
 			updateIsExpanded(Side.OUTPUT);
 		}
 
-		var sourceNodeIds = getAllTargetConnections().stream()
-				.map(GraphLink.class::cast)
-				.map(c -> c.getSourceNode().descriptor.id)
-				.toList();
-		var targetNodeIds = getAllSourceConnections().stream()
-				.map(GraphLink.class::cast)
-				.map(c -> c.getTargetNode().descriptor.id)
-				.toList();
+		var sourceNodeIds = new TLongHashSet();
+		for (var link : getAllTargetConnections()) {
+			sourceNodeIds.add(((GraphLink) link).getSourceNode().descriptor.id);
+		}
+		var targetNodeIds = new TLongHashSet();
+		for (var link : getAllSourceConnections()) {
+			targetNodeIds.add(((GraphLink) link).getTargetNode().descriptor.id);
+		}
 
 		for (var pLink : getGraph().linkSearch.getLinks(descriptor.id)) {
 			FlowType type = getGraph().flows.type(pLink.flowId);
@@ -394,14 +396,18 @@ public class Node extends MinMaxComponent {
 		for (var node : nodes) {
 			var isChainingReferenceNode = false;
 			var queue = new ArrayDeque<Node>();
+			var queued = new HashSet<Node>();
 			queue.add(node);
+			queued.add(node);
 
 			while (!queue.isEmpty()) {
 				var next = queue.poll();
+				queued.remove(next);
 
 				if (getGraph().isReferenceProcess(next)) {
 					isChainingReferenceNode = true;
 					queue.clear();
+					queued.clear();
 					continue;
 				}
 
@@ -411,7 +417,7 @@ public class Node extends MinMaxComponent {
 				otherNodes.addAll(next.getInputs());
 				otherNodes.addAll(next.getOutputs());
 				for (var otherNode : otherNodes) {
-					if (!handled.contains(otherNode) && !queue.contains(otherNode)) {
+					if (!handled.contains(otherNode) && queued.add(otherNode)) {
 						queue.add(otherNode);
 					}
 				}
@@ -443,10 +449,13 @@ public class Node extends MinMaxComponent {
 				return true;
 
 			var queue = new ArrayDeque<Node>();
+			var queued = new HashSet<Node>();
 			queue.add(node);
+			queued.add(node);
 
 			while (!queue.isEmpty()) {
 				var next = queue.poll();
+				queued.remove(next);
 				handled.add(next);
 
 				var outputs = next.getOutputs();
@@ -455,7 +464,7 @@ public class Node extends MinMaxComponent {
 				for (var output : outputs) {
 					if (getGraph().isReferenceProcess(output))
 						return true;
-					if (!handled.contains(output) && !queue.contains(output)) {
+					if (!handled.contains(output) && queued.add(output)) {
 						queue.add(output);
 					}
 				}
@@ -466,7 +475,7 @@ public class Node extends MinMaxComponent {
 				for (var input : inputs) {
 					if (getGraph().isReferenceProcess(input))
 						return true;
-					if (!handled.contains(input) && !queue.contains(input)) {
+					if (!handled.contains(input) && queued.add(input)) {
 						queue.add(input);
 					}
 				}
@@ -11,6 +11,7 @@ import org.openlca.app.components.graphics.model.Side;
 import org.openlca.core.model.FlowType;
 import org.openlca.core.model.ProcessLink;
 
+import java.util.HashSet;
 import java.util.List;
 
 import static org.openlca.app.editors.graphical.model.Node.isInput;
@@ -58,10 +59,10 @@ public class ExpandCommand extends Command {
 		var oldLinks = side == Side.INPUT
 			? host.getAllTargetConnections()
 			: host.getAllSourceConnections();
-		var oldPLinks = oldLinks.stream()
-				.map(GraphLink.class::cast)
-				.map(l -> l.processLink)
-				.toList();
+		var oldPLinks = new HashSet<ProcessLink>();
+		for (var link : oldLinks) {
+			oldPLinks.add(((GraphLink) link).processLink);
+		}
 
 		for (ProcessLink pLink : links) {
 			FlowType type = graph.flows.type(pLink.flowId);
@@ -1,8 +1,10 @@
 package org.openlca.app.editors.graphical.search;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 
 import org.openlca.core.model.ProcessLink;
@@ -34,6 +36,15 @@ public class LinkSearchMap {
 
 	private final ArrayList<ProcessLink> data;
 
+	/**
+	 * A map link -> positions of the link in the data list, so that links can
+	 * be removed without scanning the data list.
+	 */
+	private final HashMap<ProcessLink, TIntArrayList> positions = new HashMap<>();
+
+	/** The positions of removed links in the data list that can be reused. */
+	private final BitSet free = new BitSet();
+
 	public LinkSearchMap(Collection<ProcessLink> links) {
 		providerIndex = new TLongObjectHashMap<>(Constants.DEFAULT_CAPACITY,
 				Constants.DEFAULT_LOAD_FACTOR, -1L);
@@ -44,7 +55,17 @@ public class LinkSearchMap {
 			ProcessLink link = data.get(i);
 			index(link.providerId, i, providerIndex);
 			index(link.processId, i, connectionIndex);
+			indexPosition(link, i);
+		}
+	}
+
+	private void indexPosition(ProcessLink link, int position) {
+		var list = positions.get(link);
+		if (list == null) {
+			list = new TIntArrayList(1, -1);
+			positions.put(link, list);
 		}
+		list.add(position);
 	}
 
 	private void index(long key, int val, TLongObjectHashMap<TIntArrayList> map) {
@@ -53,8 +74,6 @@ public class LinkSearchMap {
 			list = new TIntArrayList(Constants.DEFAULT_CAPACITY, -1);
 			map.put(key, list);
 		}
-		if (list.contains(val))
-			return;
 		list.add(val);
 	}
 
@@ -134,19 +153,19 @@ public class LinkSearchMap {
 		int index = remove(link);
 		if (index == -1)
 			index = getAvailableIndex();
+		free.clear(index);
 		if (index < data.size())
 			data.set(index, link);
 		else
 			data.add(link);
 		index(link.providerId, index, providerIndex);
 		index(link.processId, index, connectionIndex);
+		indexPosition(link, index);
 	}
 
 	private int getAvailableIndex() {
-		for (int index = 0; index < data.size(); index++)
-			if (data.get(index) == null) // previously removed link
-				return index;
-		return data.size();
+		int index = free.nextSetBit(0); // previously removed link
+		return index >= 0 ? index : data.size();
 	}
 
 	public void removeAll(Collection<ProcessLink> links) {
@@ -155,15 +174,33 @@ public class LinkSearchMap {
 	}
 
 	public int remove(ProcessLink link) {
-		int index = data.indexOf(link);
+		int index = removePosition(link);
 		if (index < 0)
 			return -1;
 		data.set(index, null);
+		free.set(index);
 		remove(link.providerId, index, providerIndex);
 		remove(link.processId, index, connectionIndex);
 		return index;
 	}
 
+	/**
+	 * Removes and returns the first position of the given link in the data
+	 * list, or -1 if the link is not contained.
+	 */
+	private int removePosition(ProcessLink link) {
+		if (link == null)
+			return -1;
+		var list = positions.get(link);
+		if (list == null)
+			return -1;
+		int index = list.min();
+		list.remove(index);
+		if (list.isEmpty())
+			positions.remove(link);
+		return index;
+	}
+
 	private void remove(long id, int index,
 			TLongObjectHashMap<TIntArrayList> map) {
 		TIntArrayList list = map.get(id);
@@ -34,6 +34,12 @@ class EditorPage extends FormPage {
 	private Text filter;
 	private FilterCombo filterCombo;
 
+	/**
+	 * The dependency graph of the parameter formulas; it is created when the
+	 * formulas are evaluated the first time.
+	 */
+	private FormulaGraph graph;
+
 	public EditorPage(BigParameterTable table) {
 		super(table, "BigParameterTable", M.Parameters);
 	}
@@ -132,23 +138,10 @@ class EditorPage extends FormPage {
 	}
 
 	private void evaluateFormulas() {
-		var fi = buildInterpreter();
-		for (var param : params) {
-			var p = param.parameter;
-			if (p.isInputParameter) {
-				param.evalError = false;
-				continue;
-			}
-			var scope = param.isGlobal()
-				? fi.getGlobalScope()
-				: fi.getScopeOrGlobal(param.ownerId());
-			try {
-				p.value = scope.eval(p.formula);
-				param.evalError = false;
-			} catch (Exception e) {
-				param.evalError = true;
-			}
+		if (graph == null) {
+			graph = FormulaGraph.of(params);
 		}
+		graph.evalAll();
 	}
 
 	/**
@@ -176,6 +169,11 @@ class EditorPage extends FormPage {
 		if (param == null || param.parameter == null)
 			return;
 		if (ValueEditor.edit(this, param)) {
+			// when the formulas were evaluated, we update the parameters
+			// that depend on the changed parameter
+			if (graph != null) {
+				graph.update(param);
+			}
 			table.refresh();
 		}
 	}
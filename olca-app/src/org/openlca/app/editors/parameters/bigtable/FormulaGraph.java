@@ -0,0 +1,287 @@
+package org.openlca.app.editors.parameters.bigtable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.openlca.expressions.FormulaInterpreter;
+import org.openlca.formula.Formulas;
+import org.openlca.util.Strings;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TLongObjectHashMap;
+
+/**
+ * The dependency graph of the parameters in the parameter table. A node of
+ * the graph is a parameter and there is an edge from a parameter to each
+ * parameter that uses it in its formula. The variables of a formula are
+ * resolved like in a formula interpreter: a variable of a local parameter is
+ * first searched in the parameters of the same owner and then in the global
+ * parameters.
+ * <p>
+ * The formulas are parsed once when the graph is created. The parameters are
+ * then evaluated level by level in topological order, where the parameters
+ * of a level do not depend on each other and are evaluated in parallel. When
+ * a parameter is changed, only the parameters that depend directly or
+ * indirectly on it are evaluated again. Parameters that are part of a cycle
+ * or that depend on a parameter with an error are marked with an error.
+ */
+class FormulaGraph {
+
+	private final List<Param> params;
+	private final Map<Param, Integer> positions = new IdentityHashMap<>();
+	private final Map<String, Integer> globals = new HashMap<>();
+	private final TLongObjectHashMap<Map<String, Integer>> locals =
+			new TLongObjectHashMap<>();
+
+	/** The positions of the parameters that a parameter depends on. */
+	private final int[][] dependencies;
+
+	/** The positions of the parameters that depend on a parameter. */
+	private TIntArrayList[] dependents;
+
+	/**
+	 * The topological level of each parameter; {@code -1} if the parameter
+	 * is part of or depends on a cycle.
+	 */
+	private int[] levels;
+
+	private FormulaGraph(List<Param> params) {
+		this.params = params;
+		this.dependencies = new int[params.size()][];
+	}
+
+	static FormulaGraph of(List<Param> params) {
+		var g = new FormulaGraph(params);
+		for (int i = 0; i < params.size(); i++) {
+			var param = params.get(i);
+			g.positions.put(param, i);
+			var name = keyOf(param);
+			if (name == null)
+				continue;
+			if (param.isGlobal()) {
+				g.globals.put(name, i);
+				continue;
+			}
+			var scope = g.locals.get(param.ownerId());
+			if (scope == null) {
+				scope = new HashMap<>();
+				g.locals.put(param.ownerId(), scope);
+			}
+			scope.put(name, i);
+		}
+		IntStream.range(0, params.size())
+				.parallel()
+				.forEach(i -> g.dependencies[i] = g.dependenciesOf(params.get(i)));
+		g.sort();
+		return g;
+	}
+
+	/**
+	 * Evaluates all parameters of the graph.
+	 */
+	void evalAll() {
+		var all = new TIntArrayList(params.size());
+		for (int i = 0; i < params.size(); i++) {
+			all.add(i);
+		}
+		eval(all);
+	}
+
+	/**
+	 * Updates the dependencies of the given parameter, e.g. after its formula
+	 * was changed, and evaluates this parameter and all parameters that depend
+	 * on it again.
+	 */
+	void update(Param param) {
+		var pos = positions.get(param);
+		if (pos == null)
+			return;
+		dependencies[pos] = dependenciesOf(param);
+		sort();
+
+		// collect the downstream closure of the parameter
+		var closure = new TIntArrayList();
+		var visited = new boolean[params.size()];
+		var queue = new ArrayDeque<Integer>();
+		queue.add(pos);
+		visited[pos] = true;
+		while (!queue.isEmpty()) {
+			int next = queue.poll();
+			closure.add(next);
+			var ds = dependents[next];
+			for (int i = 0; i < ds.size(); i++) {
+				int d = ds.getQuick(i);
+				if (!visited[d]) {
+					visited[d] = true;
+					queue.add(d);
+				}
+			}
+		}
+		eval(closure);
+	}
+
+	/**
+	 * Evaluates the parameters at the given positions level by level.
+	 */
+	private void eval(TIntArrayList nodes) {
+		int maxLevel = 0;
+		var cyclic = new TIntArrayList();
+		for (int i = 0; i < nodes.size(); i++) {
+			int level = levels[nodes.getQuick(i)];
+			if (level < 0) {
+				cyclic.add(nodes.getQuick(i));
+			} else {
+				maxLevel = Math.max(maxLevel, level);
+			}
+		}
+
+		var byLevel = new TIntArrayList[maxLevel + 1];
+		for (int i = 0; i < nodes.size(); i++) {
+			int node = nodes.getQuick(i);
+			int level = levels[node];
+			if (level < 0)
+				continue;
+			if (byLevel[level] == null) {
+				byLevel[level] = new TIntArrayList();
+			}
+			byLevel[level].add(node);
+		}
+
+		for (var level : byLevel) {
+			if (level == null)
+				continue;
+			IntStream.of(level.toArray())
+					.parallel()
+					.forEach(this::evalNode);
+		}
+
+		for (int i = 0; i < cyclic.size(); i++) {
+			var param = params.get(cyclic.getQuick(i));
+			param.evalError = true;
+			param.evalMessage = "cyclic reference";
+		}
+	}
+
+	private void evalNode(int node) {
+		var param = params.get(node);
+		var p = param.parameter;
+		if (p.isInputParameter) {
+			param.evalError = false;
+			param.evalMessage = null;
+			return;
+		}
+
+		// bind the values of the dependencies; the dependencies are on lower
+		// levels and were evaluated before
+		var fi = new FormulaInterpreter();
+		var scope = fi.getGlobalScope();
+		for (int dep : dependencies[node]) {
+			var d = params.get(dep);
+			if (d.evalError) {
+				param.evalError = true;
+				param.evalMessage = "depends on parameter with error: "
+						+ d.parameter.name;
+				return;
+			}
+			scope.bind(d.parameter.name, d.parameter.value);
+		}
+
+		try {
+			p.value = scope.eval(p.formula);
+			param.evalError = false;
+			param.evalMessage = null;
+		} catch (Exception e) {
+			param.evalError = true;
+			param.evalMessage = Strings.cut(e.getMessage(), 80);
+		}
+	}
+
+	/**
+	 * Resolves the variables of the formula of the given parameter to the
+	 * positions of the respective parameters in the graph.
+	 */
+	private int[] dependenciesOf(Param param) {
+		var p = param.parameter;
+		if (p == null || p.isInputParameter || Strings.nullOrEmpty(p.formula))
+			return new int[0];
+		var deps = new TIntArrayList();
+		try {
+			var scope = param.isGlobal()
+					? null
+					: locals.get(param.ownerId());
+			for (var variable : Formulas.getVariables(p.formula)) {
+				if (variable == null)
+					continue;
+				var name = variable.trim().toLowerCase();
+				Integer pos = scope != null ? scope.get(name) : null;
+				if (pos == null) {
+					pos = globals.get(name);
+				}
+				if (pos != null && !deps.contains(pos)) {
+					deps.add(pos);
+				}
+			}
+		} catch (Exception e) {
+			// syntax errors are reported when the formula is evaluated
+		}
+		return deps.toArray();
+	}
+
+	/**
+	 * Calculates the dependents and the topological levels of the parameters.
+	 */
+	private void sort() {
+		int n = params.size();
+		dependents = new TIntArrayList[n];
+		for (int i = 0; i < n; i++) {
+			dependents[i] = new TIntArrayList();
+		}
+		var inDegrees = new int[n];
+		for (int i = 0; i < n; i++) {
+			for (int dep : dependencies[i]) {
+				dependents[dep].add(i);
+				inDegrees[i]++;
+			}
+		}
+
+		levels = new int[n];
+		var queue = new ArrayDeque<Integer>();
+		for (int i = 0; i < n; i++) {
+			levels[i] = -1;
+			if (inDegrees[i] == 0) {
+				levels[i] = 0;
+				queue.add(i);
+			}
+		}
+		while (!queue.isEmpty()) {
+			int next = queue.poll();
+			var ds = dependents[next];
+			for (int i = 0; i < ds.size(); i++) {
+				int d = ds.getQuick(i);
+				levels[d] = Math.max(levels[d], levels[next] + 1);
+				inDegrees[d]--;
+				if (inDegrees[d] == 0) {
+					queue.add(d);
+				}
+			}
+		}
+
+		// nodes in or behind a cycle never reach an in-degree of 0
+		for (int i = 0; i < n; i++) {
+			if (inDegrees[i] > 0) {
+				levels[i] = -1;
+			}
+		}
+	}
+
+	private static String keyOf(Param param) {
+		var p = param.parameter;
+		return p == null || p.name == null
+				? null
+				: p.name.trim().toLowerCase();
+	}
+}
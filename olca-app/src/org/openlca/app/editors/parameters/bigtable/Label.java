@@ -67,9 +67,11 @@ class Label extends LabelProvider
 		case 3:
 			if (p.isInputParameter)
 				return null;
-			return param.evalError
-					? "!! error !! " + p.formula
-					: p.formula;
+			if (!param.evalError)
+				return p.formula;
+			return param.evalMessage != null
+					? "!! " + param.evalMessage + " !! " + p.formula
+					: "!! error !! " + p.formula;
 		case 4:
 			return !p.isInputParameter || p.uncertainty == null
 					? null
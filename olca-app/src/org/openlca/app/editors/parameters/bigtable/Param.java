@@ -33,6 +33,11 @@ class Param implements Comparable<Param> {
 
 	boolean evalError;
 
+	/**
+	 * An optional message that describes the evaluation error.
+	 */
+	String evalMessage;
+
 	private Param(Parameter p) {
 		this(p, null);
 	}
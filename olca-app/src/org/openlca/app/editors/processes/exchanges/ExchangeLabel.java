@@ -111,7 +111,7 @@ class ExchangeLabel extends LabelProvider implements ITableLabelProvider,
 	private String getCategory(Exchange e) {
 		if (e.flow == null || e.flow.category == null)
 			return null;
-		var path = e.flow.category.toPath();
+		var path = Labels.category(e.flow);
 		return path.startsWith("Elementary flows/")
 				? "../" + path.substring(17)
 				: path;
@@ -12,6 +12,7 @@ import org.openlca.app.editors.projects.results.ProjectResultEditor;
 import org.openlca.app.util.Actions;
 import org.openlca.app.util.ErrorReporter;
 import org.openlca.app.util.MsgBox;
+import org.openlca.core.library.reader.LibReaderRegistry;
 import org.openlca.core.results.ProjectResult;
 
 public class ProjectEditorToolBar extends EditorActionBarContributor {
@@ -46,14 +47,18 @@ public class ProjectEditorToolBar extends EditorActionBarContributor {
 
 		var ref = new Object() {
 			ProjectResult result;
+			LibReaderRegistry libs;
 		};
 		Runnable calculation = () -> {
 			try {
 				var result = ProjectResult.of(project, db)
 						.withSolver(App.getSolver());
-				Libraries.readersForCalculation()
-						.ifPresent(result::withLibraries);
+				ref.libs = Libraries.readersForCalculation().orElse(null);
+				if (ref.libs != null) {
+					result.withLibraries(ref.libs);
+				}
 				ref.result = result.calculate();
+				Libraries.bindReaders(ref.libs, ref.result);
 			} catch (OutOfMemoryError e) {
 				MsgBox.error(M.OutOfMemory, M.CouldNotAllocateMemoryError);
 			} catch (MathIllegalArgumentException e) {
@@ -64,8 +69,10 @@ public class ProjectEditorToolBar extends EditorActionBarContributor {
 		};
 
 		App.runWithProgress(M.CalculateDots, calculation, () -> {
-			if (ref.result == null)
+			if (ref.result == null) {
+				Libraries.releaseReaders(ref.libs);
 				return;
+			}
 			var data = ProjectResultData.of(db, project, ref.result, editor.report);
 			ProjectResultEditor.open(data);
 		});
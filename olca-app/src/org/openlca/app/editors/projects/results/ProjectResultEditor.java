@@ -12,6 +12,7 @@ import org.eclipse.ui.forms.editor.FormEditor;
 import org.eclipse.ui.forms.editor.FormPage;
 import org.openlca.app.M;
 import org.openlca.app.db.Cache;
+import org.openlca.app.db.Libraries;
 import org.openlca.app.editors.Editors;
 import org.openlca.app.editors.SimpleEditorInput;
 import org.openlca.app.editors.projects.ProjectResultData;
@@ -53,6 +54,7 @@ public class ProjectResultEditor extends FormEditor {
 	@Override
 	public void dispose() {
 		data.result().dispose();
+		Libraries.releaseReaders(data.result());
 		super.dispose();
 	}
 
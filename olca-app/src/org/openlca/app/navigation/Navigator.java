@@ -29,6 +29,7 @@ import org.openlca.app.M;
 import org.openlca.app.collaboration.Repository;
 import org.openlca.app.collaboration.browse.elements.EntryElement;
 import org.openlca.app.collaboration.navigation.NavCache;
+import org.openlca.app.db.Cache;
 import org.openlca.app.db.Database;
 import org.openlca.app.editors.libraries.LibraryEditor;
 import org.openlca.app.navigation.actions.DeleteMappingAction;
@@ -40,6 +41,7 @@ import org.openlca.app.navigation.actions.db.DbDeleteAction;
 import org.openlca.app.navigation.actions.libraries.DeleteLibraryAction;
 import org.openlca.app.navigation.actions.scripts.DeleteScriptAction;
 import org.openlca.app.navigation.actions.scripts.OpenScriptAction;
+import org.openlca.app.navigation.elements.CategoryElement;
 import org.openlca.app.navigation.elements.DatabaseElement;
 import org.openlca.app.navigation.elements.INavigationElement;
 import org.openlca.app.navigation.elements.LibraryElement;
@@ -145,6 +147,7 @@ public class Navigator extends CommonNavigator {
 	 * Refresh the navigation view if it is available.
 	 */
 	public static void refresh() {
+		Cache.invalidateIndices(null);
 		var viewer = getNavigationViewer();
 		var root = getNavigationRoot();
 		if (viewer == null || root == null)
@@ -163,8 +166,18 @@ public class Navigator extends CommonNavigator {
 	 */
 	public static void refresh(INavigationElement<?> element) {
 		if (element instanceof ModelTypeElement e) {
+			Cache.invalidateIndices(e.getContent());
 			NavCache.refresh(e.getContent());
+		} else if (element instanceof ModelElement) {
+			// a single dataset is refreshed after it was saved, and these
+			// changes are applied via the cache hooks
+			NavCache.sync();
+		} else if (element instanceof CategoryElement e) {
+			// new models may have been added to the category
+			Cache.invalidateIndices(e.getContent().modelType);
+			NavCache.sync();
 		} else {
+			Cache.invalidateIndices(null);
 			NavCache.refresh();
 		}
 		doRefresh(element);
@@ -174,6 +187,12 @@ public class Navigator extends CommonNavigator {
 	 * Refreshes the content *under* the given elements.
 	 */
 	public static void refresh(Collection<INavigationElement<?>> elements) {
+		for (var element : elements) {
+			var type = modelTypeOf(element);
+			Cache.invalidateIndices(type);
+			if (type == null)
+				break;
+		}
 		NavCache.refresh();
 		for (var element : elements) {
 			doRefresh(element);
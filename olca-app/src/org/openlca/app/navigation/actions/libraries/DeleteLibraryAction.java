@@ -12,6 +12,7 @@ import org.eclipse.jface.resource.ImageDescriptor;
 import org.openlca.app.App;
 import org.openlca.app.M;
 import org.openlca.app.db.Database;
+import org.openlca.app.db.Libraries;
 import org.openlca.app.navigation.Navigator;
 import org.openlca.app.navigation.actions.INavigationAction;
 import org.openlca.app.navigation.elements.INavigationElement;
@@ -97,6 +98,7 @@ public class DeleteLibraryAction extends Action implements INavigationAction {
 		// delete it
 		Dirs.delete(lib.folder());
 		removeSession(lib.name());
+		Libraries.evictReader(lib.name());
 		Navigator.refresh();
 	}
 
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
+import org.openlca.app.db.Cache;
 import org.openlca.app.db.Database;
 import org.openlca.app.db.DatabaseDir;
 import org.openlca.app.db.Libraries;
@@ -17,6 +18,7 @@ import org.openlca.core.model.Category;
 import org.openlca.core.model.ImpactCategory;
 import org.openlca.core.model.Process;
 import org.openlca.core.model.RootEntity;
+import org.openlca.core.model.descriptors.Descriptor;
 import org.openlca.core.model.descriptors.RootDescriptor;
 
 /// The clipboard for the navigation viewer. Note that this class is not
@@ -202,6 +204,7 @@ public class NaviClipboard {
 		Category category = categoryOf(target);
 		Optional<Category> parent = Optional.ofNullable(category);
 		Daos.root(Database.get(), entity.type).updateCategory(entity, parent);
+		Cache.evict(entity);
 	}
 
 	private void copyTo(ModelElement e, Category category) {
@@ -227,6 +230,7 @@ public class NaviClipboard {
 		copy.name = copy.name + " (copy)";
 		DatabaseDir.copyDir(entity, copy);
 		Database.get().insert(copy);
+		Cache.registerNew(Descriptor.of(copy));
 	}
 
 	public boolean isEmpty() {
@@ -3,11 +3,9 @@ package org.openlca.app.navigation.elements;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 import org.openlca.app.db.Database;
 import org.openlca.core.database.CategoryDao;
-import org.openlca.core.database.Daos;
 import org.openlca.core.model.Category;
 
 /**
@@ -37,25 +35,14 @@ public class CategoryElement extends NavigationElement<Category> {
 		var list = new ArrayList<INavigationElement<?>>();
 
 		// child categories
-		if (lib == null) {
-			category.childCategories.stream()
-				.map(c -> new CategoryElement(this, c))
-				.forEach(list::add);
-		} else {
-			var test = DatabaseElement.categoryTesterOf(this);
-			if (test != null) {
-				category.childCategories.stream()
-					.filter(c -> test.hasLibraryContent(c, lib))
-					.map(c -> new CategoryElement(this, c))
-					.forEach(list::add);
+		for (var child : category.childCategories) {
+			if (lib == null || ModelIndex.hasLibraryContent(child, lib)) {
+				list.add(new CategoryElement(this, child));
 			}
 		}
 
 		// models in this category
-		var dao = Daos.root(Database.get(), category.modelType);
-		if (dao == null)
-			return list;
-		for (var d : dao.getDescriptors(Optional.of(category))) {
+		for (var d : ModelIndex.getDescriptors(category.modelType, category)) {
 			if (lib == null || lib.equals(d.library)) {
 				list.add(new ModelElement(this, d));
 			}
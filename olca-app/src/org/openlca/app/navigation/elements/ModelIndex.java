@@ -0,0 +1,268 @@
+package org.openlca.app.navigation.elements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.openlca.app.db.Database;
+import org.openlca.core.database.Daos;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.database.ParameterDao;
+import org.openlca.core.model.Category;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.Parameter;
+import org.openlca.core.model.ParameterScope;
+import org.openlca.core.model.descriptors.Descriptor;
+import org.openlca.core.model.descriptors.RootDescriptor;
+import org.openlca.util.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An in-memory index of the descriptors of the active database that are
+ * shown in the navigation tree. The descriptors of a model type are loaded
+ * in a single query when the first element of that type is expanded and
+ * are then grouped by their categories, so that the children of a category
+ * element can be created without further database queries. The index is kept
+ * up to date via the hooks in {@link org.openlca.app.db.Cache}: see
+ * {@link #put(Descriptor)}, {@link #update(Descriptor)}, and
+ * {@link #invalidate()}. As not all writers pass these hooks, the index of
+ * a type is also dropped when the navigation tree is refreshed via
+ * {@link org.openlca.app.navigation.Navigator}.
+ */
+public final class ModelIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(ModelIndex.class);
+
+	private static IDatabase db;
+	private static final Map<ModelType, TypeIndex> types =
+			new EnumMap<>(ModelType.class);
+
+	private ModelIndex() {
+	}
+
+	/**
+	 * Returns the descriptors of the given type in the given category (or
+	 * without category when the category is {@code null}).
+	 */
+	static synchronized List<RootDescriptor> getDescriptors(
+			ModelType type, Category category) {
+		var index = indexOf(type);
+		if (index == null)
+			return Collections.emptyList();
+		var list = index.byCategory.get(category != null ? category.id : null);
+		return list != null
+				? new ArrayList<>(list)
+				: Collections.emptyList();
+	}
+
+	/**
+	 * Returns {@code true} if the given category or one of its child
+	 * categories contains models from the given library.
+	 */
+	static synchronized boolean hasLibraryContent(
+			Category category, String library) {
+		if (category == null || library == null)
+			return false;
+		var index = indexOf(category.modelType);
+		return index != null && index.librariesOf(category).contains(library);
+	}
+
+	/**
+	 * Drops the index. It is rebuilt when the navigation tree is expanded the
+	 * next time. This is called when the database is closed or when too much
+	 * has changed for an incremental update (e.g. after imports).
+	 */
+	public static synchronized void invalidate() {
+		db = null;
+		types.clear();
+	}
+
+	/**
+	 * Drops the index of the given model type, or the complete index when the
+	 * type is {@code null}. This is called when the navigation tree is
+	 * refreshed, because models may have been written directly to the
+	 * database, e.g. by imports, without passing the hooks in
+	 * {@link org.openlca.app.db.Cache}.
+	 */
+	public static synchronized void invalidate(ModelType type) {
+		if (type == null) {
+			invalidate();
+			return;
+		}
+		types.remove(type);
+	}
+
+	/**
+	 * Adds the given (new) descriptor to the index, if its type is loaded.
+	 */
+	public static synchronized void put(Descriptor d) {
+		if (d == null || d.type == null)
+			return;
+		var index = types.get(d.type);
+		if (index == null)
+			return;
+		if (d instanceof RootDescriptor rd) {
+			index.remove(rd.id);
+			index.add(rd);
+		} else {
+			index.reload(d.id);
+		}
+	}
+
+	/**
+	 * Reloads the descriptor with the type and ID of the given descriptor from
+	 * the database and updates the index accordingly. If the descriptor does
+	 * not exist anymore, it is removed from the index.
+	 */
+	public static synchronized void update(Descriptor d) {
+		if (d == null)
+			return;
+		if (d.type == null) {
+			invalidate();
+			return;
+		}
+		if (d.type == ModelType.CATEGORY) {
+			// the models are grouped by category IDs which do not change;
+			// only the library content of the category tree may change
+			for (var index : types.values()) {
+				index.libraries.clear();
+			}
+			return;
+		}
+		var index = types.get(d.type);
+		if (index != null) {
+			index.reload(d.id);
+		}
+	}
+
+	private static TypeIndex indexOf(ModelType type) {
+		if (type == null)
+			return null;
+		var current = Database.get();
+		if (current == null)
+			return null;
+		if (current != db) {
+			types.clear();
+			db = current;
+		}
+		var index = types.get(type);
+		if (index != null)
+			return index;
+		index = new TypeIndex(current, type);
+		index.load();
+		types.put(type, index);
+		return index;
+	}
+
+	private static class TypeIndex {
+
+		private final IDatabase db;
+		private final ModelType type;
+
+		/** category ID (null for root models) -> descriptors */
+		private final Map<Long, List<RootDescriptor>> byCategory = new HashMap<>();
+		/** descriptor ID -> descriptor */
+		private final Map<Long, RootDescriptor> byId = new HashMap<>();
+		/**
+		 * category ID -> libraries of the models in the category and its
+		 * child categories; filled lazily and cleared on changes
+		 */
+		private final Map<Long, Set<String>> libraries = new HashMap<>();
+
+		TypeIndex(IDatabase db, ModelType type) {
+			this.db = db;
+			this.type = type;
+		}
+
+		void load() {
+			var all = type == ModelType.PARAMETER
+					? new ParameterDao(db).getGlobalDescriptors()
+					: descriptorsOf(type);
+			for (var d : all) {
+				add(d);
+			}
+			log.trace("loaded {} descriptors of type {}", byId.size(), type);
+		}
+
+		private List<? extends RootDescriptor> descriptorsOf(ModelType type) {
+			var dao = Daos.root(db, type);
+			return dao != null
+					? dao.getDescriptors()
+					: Collections.emptyList();
+		}
+
+		void add(RootDescriptor d) {
+			if (d == null)
+				return;
+			byId.put(d.id, d);
+			byCategory.computeIfAbsent(d.category, $ -> new ArrayList<>())
+					.add(d);
+			if (Strings.notEmpty(d.library)) {
+				libraries.clear();
+			}
+		}
+
+		void remove(long id) {
+			var d = byId.remove(id);
+			if (d == null)
+				return;
+			var list = byCategory.get(d.category);
+			if (list != null) {
+				list.removeIf(other -> other.id == id);
+				if (list.isEmpty()) {
+					byCategory.remove(d.category);
+				}
+			}
+			if (Strings.notEmpty(d.library)) {
+				libraries.clear();
+			}
+		}
+
+		void reload(long id) {
+			remove(id);
+			add(fetch(id));
+		}
+
+		private RootDescriptor fetch(long id) {
+			if (type == ModelType.PARAMETER) {
+				var param = db.get(Parameter.class, id);
+				return param != null && param.scope == ParameterScope.GLOBAL
+						? Descriptor.of(param)
+						: null;
+			}
+			var dao = Daos.root(db, type);
+			return dao != null
+					? dao.getDescriptor(id)
+					: null;
+		}
+
+		Set<String> librariesOf(Category category) {
+			var libs = libraries.get(category.id);
+			if (libs != null)
+				return libs;
+			libs = new HashSet<>();
+			var models = byCategory.get(category.id);
+			if (models != null) {
+				for (var d : models) {
+					if (Strings.notEmpty(d.library)) {
+						libs.add(d.library);
+					}
+				}
+			}
+			for (var child : category.childCategories) {
+				if (Objects.equals(child.modelType, type)) {
+					libs.addAll(librariesOf(child));
+				}
+			}
+			libraries.put(category.id, libs);
+			return libs;
+		}
+	}
+}
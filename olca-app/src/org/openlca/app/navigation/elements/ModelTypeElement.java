@@ -3,11 +3,9 @@ package org.openlca.app.navigation.elements;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 
 import org.openlca.app.db.Database;
 import org.openlca.core.database.CategoryDao;
-import org.openlca.core.database.Daos;
 import org.openlca.core.model.ModelType;
 
 public class ModelTypeElement extends NavigationElement<ModelType> {
@@ -25,27 +23,14 @@ public class ModelTypeElement extends NavigationElement<ModelType> {
 		var lib = getLibrary().orElse(null);
 
 		// add root categories
-		if (lib == null) {
-			new CategoryDao(db).getRootCategories(type)
-				.stream()
-				.map(root -> new CategoryElement(this, root))
-				.forEach(list::add);
-		} else {
-			var test = DatabaseElement.categoryTesterOf(this);
-			if (test != null) {
-				new CategoryDao(db).getRootCategories(type)
-					.stream()
-					.filter(root -> test.hasLibraryContent(root, lib))
-					.map(root -> new CategoryElement(this, root))
-					.forEach(list::add);
+		for (var root : new CategoryDao(db).getRootCategories(type)) {
+			if (lib == null || ModelIndex.hasLibraryContent(root, lib)) {
+				list.add(new CategoryElement(this, root));
 			}
 		}
 
 		// models without category
-		var dao = Daos.root(Database.get(), type);
-		if (dao == null)
-			return list;
-		for (var d : dao.getDescriptors(Optional.empty())) {
+		for (var d : ModelIndex.getDescriptors(type, null)) {
 			if (lib == null || Objects.equals(lib, d.library)) {
 				list.add(new ModelElement(this, d));
 			}
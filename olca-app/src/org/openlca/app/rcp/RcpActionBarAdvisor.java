@@ -39,6 +39,7 @@ import org.openlca.app.navigation.actions.ExportAction;
 import org.openlca.app.navigation.actions.NavigationMenu;
 import org.openlca.app.rcp.images.Icon;
 import org.openlca.app.rcp.images.Images;
+import org.openlca.app.results.ResultMatrixFile;
 import org.openlca.app.tools.libraries.LibraryExportDialog;
 import org.openlca.app.tools.mapping.MappingTool;
 import org.openlca.app.tools.openepd.EpdPanel;
@@ -139,6 +140,9 @@ public class RcpActionBarAdvisor extends ActionBarAdvisor {
 		menu.add(impMenu);
 		menu.add(new ExportAction());
 		menu.add(new Separator());
+		menu.add(Actions.create(M.OpenResultMatrixFileDots,
+			Icon.ANALYSIS_RESULT.descriptor(), ResultMatrixFile::open));
+		menu.add(new Separator());
 		menu.add(exitAction);
 		menuBar.add(menu);
 	}
@@ -0,0 +1,444 @@
+package org.openlca.app.results;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.openlca.app.db.Libraries;
+import org.openlca.app.rcp.Workspace;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.CalculationSetup;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.ParameterRedef;
+import org.openlca.core.model.RootEntity;
+import org.openlca.core.model.Unit;
+import org.openlca.core.results.LcaResult;
+import org.openlca.core.results.providers.EagerResultProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache of calculation results of the active database. The results are
+ * stored under a key that is computed from the calculation setup and a
+ * version counter of the database content. The counter is increased and the
+ * cache is cleared via the hooks in {@link org.openlca.app.db.Cache} when a
+ * model that can contribute to a result is changed, added, or deleted, and
+ * when the navigation is refreshed after an import. Thus, a cached result is
+ * returned only when the same setup is calculated again and no such change
+ * happened in the meantime.
+ * <p>
+ * The cache has two tiers with a least-recently-used policy each. The memory
+ * tier is bounded by the number of results and by an estimate of their memory
+ * size; a result that is larger than this bound is not kept in memory. Eager
+ * results that are removed from the memory tier, or that are too large for
+ * it, are written as {@link ResultMatrixFile} into the cache folder of the
+ * workspace in the background. This disk tier is bounded by the total size of
+ * the files. A result that is found on disk is solved again from its file,
+ * which saves the loading of the models and the building of the matrices.
+ * <p>
+ * As result editors dispose their results when they are closed, the results
+ * are reference counted: an editor acquires a result when it is opened and
+ * releases it when it is closed, and a result is also acquired while it is
+ * written to disk. A result that is removed from the cache is only disposed
+ * when it is not used anymore.
+ */
+public final class ResultCache {
+
+	static final int MAX_RESULTS = 5;
+	static final long MAX_BYTES = Runtime.getRuntime().maxMemory() / 4;
+
+	/** The maximum total size of the result files on disk in bytes. */
+	static final long MAX_DISK_BYTES = 2L * 1024 * 1024 * 1024;
+
+	private static final Logger log = LoggerFactory.getLogger(ResultCache.class);
+	private static final LinkedHashMap<String, Entry> entries =
+			new LinkedHashMap<>(16, 0.75f, true);
+	private static final LinkedHashMap<String, File> files =
+			new LinkedHashMap<>(16, 0.75f, true);
+	private static final Map<LcaResult, Entry> owned = new IdentityHashMap<>();
+	private static final ExecutorService writer =
+			Executors.newSingleThreadExecutor(r -> {
+				var thread = new Thread(r, "result-cache");
+				thread.setDaemon(true);
+				return thread;
+			});
+	private static IDatabase db;
+	private static long version;
+	private static File dir;
+
+	private ResultCache() {
+	}
+
+	/**
+	 * Returns the cache key of the given setup in the given database. The
+	 * calculation type (e.g. lazy or eager) is passed as a separate flag as
+	 * it is not part of the setup.
+	 */
+	public static synchronized String keyOf(
+			IDatabase database, CalculationSetup setup, String type) {
+		if (database == null || setup == null)
+			return null;
+		var key = new StringBuilder();
+		key.append(type).append('|');
+		key.append(idOf(setup.target())).append('|');
+		key.append(setup.amount()).append('|');
+		key.append(idOf(setup.unit())).append('|');
+		key.append(setup.flowPropertyFactor() != null
+				? setup.flowPropertyFactor().id
+				: 0).append('|');
+		key.append(idOf(setup.impactMethod())).append('|');
+		key.append(idOf(setup.nwSet())).append('|');
+		key.append(setup.allocation()).append('|');
+		key.append(setup.hasCosts()).append('|');
+		key.append(setup.hasRegionalization()).append('|');
+
+		var params = new ArrayList<>(setup.parameters());
+		params.sort(Comparator
+				.comparing((ParameterRedef p) ->
+						Objects.toString(p.name, ""))
+				.thenComparing(p -> Objects.toString(p.contextId, "")));
+		for (var p : params) {
+			key.append(p.name).append(':')
+					.append(p.contextType).append(':')
+					.append(p.contextId).append('=')
+					.append(p.value).append(';');
+		}
+		key.append('|').append(versionTag());
+		return key.toString();
+	}
+
+	private static String idOf(Object o) {
+		if (o instanceof RootEntity e)
+			return e.getClass().getSimpleName() + ":" + e.id;
+		if (o instanceof Unit u)
+			return "Unit:" + u.id;
+		return o != null ? o.toString() : "";
+	}
+
+	private static String versionTag() {
+		return "v" + version;
+	}
+
+	/**
+	 * Clears the cache when a model of the given type was changed, added, or
+	 * deleted and increases the version counter, so that results that are
+	 * calculated in the meantime are not cached with an outdated key. A type
+	 * of {@code null} means that any model could have been changed. Changes of
+	 * models that cannot contribute to a result are ignored.
+	 */
+	public static synchronized void invalidate(ModelType type) {
+		if (type != null) {
+			switch (type) {
+				case ACTOR, SOURCE, PROJECT, EPD -> {
+					return;
+				}
+				default -> {
+				}
+			}
+		}
+		version++;
+		if (!entries.isEmpty() || !files.isEmpty()) {
+			log.trace("invalidate result cache");
+			clearEntries();
+		}
+	}
+
+	/**
+	 * Returns the cached result for the given key and acquires it, or
+	 * {@code null} if there is no such result. When the result is only cached
+	 * on disk, it is solved again from its file, thus, this should be called
+	 * in a background thread.
+	 */
+	public static LcaResult get(IDatabase database, String key) {
+		File file;
+		synchronized (ResultCache.class) {
+			if (database == null || key == null || database != db)
+				return null;
+			var entry = entries.get(key);
+			if (entry != null) {
+				entry.refs++;
+				log.trace("result cache hit");
+				return entry.result;
+			}
+			file = files.get(key);
+			if (file == null)
+				return null;
+		}
+
+		log.trace("read result from the disk cache");
+		ResultBundle bundle;
+		try {
+			bundle = ResultMatrixFile.readBundle(database, file);
+		} catch (Exception e) {
+			log.warn("failed to read cached result " + file, e);
+			synchronized (ResultCache.class) {
+				if (files.remove(key, file)) {
+					delete(file);
+				}
+			}
+			return null;
+		}
+		var result = bundle.result();
+		synchronized (ResultCache.class) {
+			if (database == db && isCurrent(key)) {
+				admit(key, bundle.setup(), result);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Adds the given result of the given setup to the cache and acquires it;
+	 * results that are not used anymore are removed when the cache exceeds its
+	 * limits. The result is not cached when the database content changed after
+	 * the key was created.
+	 */
+	public static synchronized void put(IDatabase database, String key,
+			CalculationSetup setup, LcaResult result) {
+		if (database == null || key == null || setup == null || result == null)
+			return;
+		if (!isCurrent(key)) {
+			log.trace("database changed during calculation; result not cached");
+			return;
+		}
+		if (database != db) {
+			clearEntries();
+			db = database;
+		}
+		admit(key, setup, result);
+	}
+
+	private static boolean isCurrent(String key) {
+		return key.endsWith("|" + versionTag());
+	}
+
+	/**
+	 * Adds the result to the memory tier with one reference. A result that is
+	 * larger than the memory bound is only written to disk.
+	 */
+	private static void admit(
+			String key, CalculationSetup setup, LcaResult result) {
+		var old = entries.remove(key);
+		if (old != null) {
+			drop(old);
+		}
+		var entry = new Entry(key, setup, result, sizeOf(result));
+		entry.refs = 1;
+		owned.put(result, entry);
+		if (entry.size > MAX_BYTES) {
+			log.trace("result exceeds the memory bound; not kept in memory");
+			entry.removed = true;
+			spill(entry);
+			return;
+		}
+		entries.put(key, entry);
+		trim();
+	}
+
+	/**
+	 * Releases the given result. Returns {@code true} if the result is managed
+	 * by the cache and must not be disposed by the caller.
+	 */
+	public static synchronized boolean release(LcaResult result) {
+		var entry = owned.get(result);
+		if (entry == null)
+			return false;
+		entry.refs = Math.max(0, entry.refs - 1);
+		if (entry.refs == 0 && entry.removed) {
+			owned.remove(result);
+			dispose(result);
+		}
+		return true;
+	}
+
+	/**
+	 * Removes all results from the cache, e.g. when the database is closed.
+	 * Results that are still used by editors are disposed when they are
+	 * released.
+	 */
+	public static synchronized void clear() {
+		clearEntries();
+		db = null;
+		version++;
+	}
+
+	/**
+	 * Removes the results from memory and deletes their files, as they are
+	 * outdated.
+	 */
+	private static void clearEntries() {
+		for (var entry : entries.values()) {
+			drop(entry);
+		}
+		entries.clear();
+		for (var file : files.values()) {
+			delete(file);
+		}
+		files.clear();
+	}
+
+	private static void trim() {
+		long total = 0;
+		for (var e : entries.values()) {
+			total += e.size;
+		}
+		var it = entries.values().iterator();
+		while (it.hasNext()
+				&& (entries.size() > MAX_RESULTS || total > MAX_BYTES)) {
+			var next = it.next();
+			total -= next.size;
+			it.remove();
+			spill(next);
+			drop(next);
+		}
+	}
+
+	private static void drop(Entry entry) {
+		entry.removed = true;
+		if (entry.refs == 0) {
+			owned.remove(entry.result);
+			dispose(entry.result);
+		}
+	}
+
+	/**
+	 * Disposes the given result and ends the leases of the library readers
+	 * it was calculated with.
+	 */
+	private static void dispose(LcaResult result) {
+		result.dispose();
+		Libraries.releaseReaders(result);
+	}
+
+	// region disk tier
+
+	/**
+	 * Writes the result of the given entry to disk in the background. The
+	 * result is acquired until it is written. Only eager results are written,
+	 * as the matrices of lazy results are read from libraries on demand.
+	 */
+	private static void spill(Entry entry) {
+		if (files.containsKey(entry.key)
+				|| !(entry.result.provider() instanceof EagerResultProvider))
+			return;
+		var database = db;
+		entry.refs++;
+		writer.execute(() -> {
+			try {
+				write(database, entry);
+			} finally {
+				release(entry.result);
+			}
+		});
+	}
+
+	private static void write(IDatabase database, Entry entry) {
+		synchronized (ResultCache.class) {
+			if (database != db || !isCurrent(entry.key))
+				return;
+		}
+		File file = null;
+		try {
+			file = File.createTempFile("result", "." + ResultMatrixFile.EXTENSION,
+					dir());
+			ResultMatrixFile.write(database, entry.setup, entry.result, null, file);
+		} catch (Exception e) {
+			log.trace("could not write result to the disk cache: {}",
+					e.getMessage());
+			delete(file);
+			return;
+		}
+		synchronized (ResultCache.class) {
+			if (database != db || !isCurrent(entry.key)) {
+				delete(file);
+				return;
+			}
+			var old = files.put(entry.key, file);
+			if (old != null) {
+				delete(old);
+			}
+			trimFiles();
+		}
+	}
+
+	private static void trimFiles() {
+		long total = 0;
+		for (var file : files.values()) {
+			total += file.length();
+		}
+		var it = files.values().iterator();
+		while (it.hasNext() && total > MAX_DISK_BYTES) {
+			var next = it.next();
+			total -= next.length();
+			it.remove();
+			delete(next);
+		}
+	}
+
+	/**
+	 * Returns the cache folder. The files of an earlier session are deleted
+	 * when the folder is first used.
+	 */
+	private static synchronized File dir() {
+		if (dir != null)
+			return dir;
+		dir = new File(Workspace.root(), "result-cache");
+		if (!dir.exists()) {
+			dir.mkdirs();
+		} else {
+			var old = dir.listFiles();
+			if (old != null) {
+				for (var file : old) {
+					delete(file);
+				}
+			}
+		}
+		return dir;
+	}
+
+	/**
+	 * Deletes the given file. A file that is still mapped into memory cannot
+	 * be deleted on some platforms; it is then deleted on exit.
+	 */
+	private static void delete(File file) {
+		if (file != null && file.exists() && !file.delete()) {
+			file.deleteOnExit();
+		}
+	}
+
+	// endregion
+
+	/**
+	 * Estimates the memory size of a result from the sizes of its indices: the
+	 * dense intensity matrices have one row per flow or indicator and one
+	 * column per technosphere flow.
+	 */
+	private static long sizeOf(LcaResult result) {
+		long n = result.techIndex() != null ? result.techIndex().size() : 0;
+		long m = result.hasEnviFlows() ? result.enviIndex().size() : 0;
+		long k = result.hasImpacts() ? result.impactIndex().size() : 0;
+		return 8 * n * (n + m + k + 2);
+	}
+
+	private static class Entry {
+		final String key;
+		final CalculationSetup setup;
+		final LcaResult result;
+		final long size;
+		int refs;
+		boolean removed;
+
+		Entry(String key, CalculationSetup setup, LcaResult result, long size) {
+			this.key = key;
+			this.setup = setup;
+			this.result = result;
+			this.size = size;
+		}
+	}
+}
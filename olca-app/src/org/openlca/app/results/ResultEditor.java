@@ -7,12 +7,14 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.dialogs.IPageChangedListener;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IEditorInput;
 import org.eclipse.ui.IEditorSite;
 import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.forms.editor.FormEditor;
 import org.openlca.app.M;
 import org.openlca.app.db.Cache;
+import org.openlca.app.db.Libraries;
 import org.openlca.app.editors.Editors;
 import org.openlca.app.editors.SimpleEditorInput;
 import org.openlca.app.preferences.FeatureFlag;
@@ -45,6 +47,7 @@ public class ResultEditor extends FormEditor {
 	public static final String ID = "editors.analyze";
 
 	private ResultBundle bundle;
+	private final ResultPrecompute precompute = new ResultPrecompute();
 
 	public static void open(ResultBundle bundle) {
 		if (bundle == null)
@@ -103,9 +106,24 @@ public class ResultEditor extends FormEditor {
 		return bundle.dqResult();
 	}
 
+	/**
+	 * Returns the background computations of the result pages of this editor.
+	 */
+	public ResultPrecompute precompute() {
+		return precompute;
+	}
+
 	@Override
 	public void dispose() {
-		result().dispose();
+		// results from the result cache are disposed by the cache; the result
+		// is released when a running background computation has finished
+		var result = result();
+		precompute.close(() -> {
+			if (!ResultCache.release(result)) {
+				result.dispose();
+				Libraries.releaseReaders(result);
+			}
+		});
 		super.dispose();
 	}
 
@@ -146,12 +164,36 @@ public class ResultEditor extends FormEditor {
 				addPage(new TagResultPage(this));
 			}
 
+			// the page controls are created when a page is activated the
+			// first time; for eager results, the expensive data of the pages
+			// are calculated in the background after the first page was
+			// rendered, see ResultPrecompute
+			if (ResultPrecompute.canRun(result())) {
+				Display.getCurrent().asyncExec(this::schedulePrecompute);
+			}
+
 		} catch (Throwable e) {
 			ErrorReporter.on("failed to create result pages", e);
 			this.close(false);
 		}
 	}
 
+	/**
+	 * Schedules the background computations of the pages in the order in
+	 * which the pages are likely used.
+	 */
+	private void schedulePrecompute() {
+		LocationPage.schedule(this);
+		if (result().hasImpacts()
+				&& setup().target() instanceof ProductSystem sys
+				&& !sys.analysisGroups.isEmpty()) {
+			AnalysisGroupsPage.schedule(this, sys);
+		}
+		if (FeatureFlag.TAG_RESULTS.isEnabled()) {
+			TagResultPage.schedule(this);
+		}
+	}
+
 	@Override
 	protected void pageChange(int newPageIndex) {
 		try {
@@ -0,0 +1,678 @@
+package org.openlca.app.results;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+import org.openlca.app.App;
+import org.openlca.app.M;
+import org.openlca.app.components.FileChooser;
+import org.openlca.app.db.Cache;
+import org.openlca.app.db.Database;
+import org.openlca.app.preferences.FeatureFlag;
+import org.openlca.app.rcp.Workspace;
+import org.openlca.app.results.slca.SocialResult;
+import org.openlca.app.util.ErrorReporter;
+import org.openlca.app.util.Labels;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.math.data_quality.AggregationType;
+import org.openlca.core.math.data_quality.DQResult;
+import org.openlca.core.math.data_quality.DQSetup;
+import org.openlca.core.math.data_quality.NAHandling;
+import org.openlca.core.matrix.Demand;
+import org.openlca.core.matrix.MatrixData;
+import org.openlca.core.matrix.format.HashPointMatrix;
+import org.openlca.core.matrix.format.MatrixReader;
+import org.openlca.core.matrix.index.EnviFlow;
+import org.openlca.core.matrix.index.EnviIndex;
+import org.openlca.core.matrix.index.ImpactIndex;
+import org.openlca.core.matrix.index.TechFlow;
+import org.openlca.core.matrix.index.TechIndex;
+import org.openlca.core.model.AllocationMethod;
+import org.openlca.core.model.CalculationSetup;
+import org.openlca.core.model.CalculationTarget;
+import org.openlca.core.model.DQSystem;
+import org.openlca.core.model.FlowPropertyFactor;
+import org.openlca.core.model.ImpactMethod;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.NwSet;
+import org.openlca.core.model.ParameterRedef;
+import org.openlca.core.model.RootEntity;
+import org.openlca.core.model.Unit;
+import org.openlca.core.model.descriptors.FlowDescriptor;
+import org.openlca.core.model.descriptors.LocationDescriptor;
+import org.openlca.core.model.descriptors.RootDescriptor;
+import org.openlca.core.results.LcaResult;
+import org.openlca.core.results.providers.ResultProvider;
+import org.openlca.core.results.providers.ResultProviders;
+import org.openlca.core.results.providers.SolverContext;
+import org.openlca.license.License;
+import org.openlca.util.Strings;
+
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TLongIntHashMap;
+
+/**
+ * Writes and reads result matrix files. A result matrix file is a compact
+ * binary file that contains the calculation setup, the data quality setup,
+ * the matrix indices, and the sparse matrices of a calculation. The matrices
+ * are taken from the result provider, thus, they are the matrices the result
+ * was solved from, including the columns of sub-systems, linked results, and
+ * libraries. Results with data of licensed libraries cannot be stored, as the
+ * file is not encrypted. The indices are stored as database IDs and are
+ * resolved against the active database when the file is opened.
+ * <p>
+ * Opening a file solves the stored matrices again and calculates the data
+ * quality result from the stored setup; only the loading of the models to
+ * build the matrices is saved. The solved results are not stored: the result
+ * providers of olca-core can only be created by solving matrix data, and
+ * there is no provider that could serve stored results from a file.
+ * <p>
+ * The file has the following layout; all numbers are big-endian:
+ * <pre>
+ * header:   magic number, format version, database name
+ * setup:    target, amount, unit, method, allocation, parameters, ...
+ * dq setup: the optional data quality systems, aggregation, rounding, ...
+ * demand:   the demand value of the reference flow
+ * indices:  technosphere flows, intervention flows, impact categories
+ * costs:    the optional cost vector
+ * matrices: technosphere, intervention, and impact matrix as compressed
+ *           sparse columns (column pointers, row indices, values)
+ * </pre>
+ */
+public final class ResultMatrixFile {
+
+	/** The file extension of result matrix files. */
+	public static final String EXTENSION = "olcm";
+
+	private static final int MAGIC = 0x4F4C434D; // "OLCM"
+	private static final int VERSION = 1;
+
+	private ResultMatrixFile() {
+	}
+
+	/**
+	 * Asks the user for a result matrix file, reads it, and opens the result in a
+	 * result editor. This should be called in the UI thread.
+	 */
+	public static void open() {
+		var db = Database.get();
+		if (db == null)
+			return;
+		var file = FileChooser.openFile()
+				.withTitle(M.OpenResultMatrixFileDots)
+				.withExtensions("*." + EXTENSION)
+				.select()
+				.orElse(null);
+		if (file == null)
+			return;
+		var bundle = App.exec(M.OpeningResultMatrixFileDots, () -> {
+			try {
+				return read(db, file);
+			} catch (IOException e) {
+				throw new RuntimeException(
+						"failed to read result matrix file " + file, e);
+			}
+		});
+		ResultEditor.open(bundle);
+	}
+
+	/**
+	 * Asks the user for a file and saves the result of the given editor as
+	 * result matrix file behind a progress indicator. The given name is
+	 * used as default file name.
+	 */
+	static void save(ResultEditor editor, String name) {
+		var fileName = Strings.nullOrEmpty(name)
+				? Labels.name(editor.setup().target())
+				: name.trim();
+		if (Strings.nullOrEmpty(fileName)) {
+			fileName = "result";
+		}
+		var file = FileChooser.forSavingFile(M.SaveResultMatrixFileDots,
+				fileName.replaceAll("[^\\w\\s.-]", "_") + "." + EXTENSION);
+		if (file == null)
+			return;
+		App.exec(M.SaveResultMatrixFileDots, () -> {
+			try {
+				write(editor, file);
+			} catch (Exception e) {
+				if (file.exists()) {
+					file.delete();
+				}
+				ErrorReporter.on("failed to write result matrix file " + file, e);
+			}
+		});
+	}
+
+	/**
+	 * Saves the result of the given editor as result matrix file. The
+	 * matrices are read from the result provider, which can be expensive for
+	 * lazy results, thus, this should be called in a background thread.
+	 */
+	private static void write(ResultEditor editor, File file) throws IOException {
+		write(Database.get(), editor.setup(), editor.result(),
+				editor.dqResult(), file);
+	}
+
+	/**
+	 * Writes the given result with its setup into the given file. The data
+	 * quality result is optional. As the matrices are read from the result
+	 * provider, the result must not be disposed while it is written.
+	 */
+	static void write(IDatabase db, CalculationSetup setup, LcaResult result,
+			DQResult dqResult, File file) throws IOException {
+		var provider = result.provider();
+		checkLicenses(result.techIndex());
+		try (var fout = new FileOutputStream(file);
+				 var buff = new BufferedOutputStream(fout);
+				 var out = new DataOutputStream(buff)) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeString(out, db.getName());
+			writeSetup(out, setup);
+			writeDQSetup(out, dqResult);
+			out.writeDouble(result.demand().value());
+			writeIndices(out, provider);
+
+			int n = provider.techIndex().size();
+			int m = provider.hasFlows() ? provider.enviIndex().size() : 0;
+			int k = provider.hasImpacts() ? provider.impactIndex().size() : 0;
+			writeVector(out, costsOf(provider));
+			writeMatrix(out, n, n, provider::techColumnOf);
+			if (provider.hasFlows()) {
+				writeMatrix(out, m, n, provider::unscaledFlowsOf);
+			} else {
+				out.writeInt(-1);
+			}
+			if (provider.hasFlows() && provider.hasImpacts()) {
+				writeMatrix(out, k, m, provider::impactFactorsOf);
+			} else {
+				out.writeInt(-1);
+			}
+		}
+	}
+
+	/**
+	 * Throws an exception when a provider of the given index is from a
+	 * licensed library: the data of such libraries are encrypted, and they
+	 * must not be written in plain form into a result matrix file.
+	 */
+	private static void checkLicenses(TechIndex techIndex) throws IOException {
+		var libs = new HashSet<String>();
+		for (var techFlow : techIndex) {
+			var provider = techFlow.provider();
+			if (provider != null && provider.library != null) {
+				libs.add(provider.library);
+			}
+		}
+		var libDir = Workspace.getLibraryDir();
+		for (var name : libs) {
+			var lib = libDir.getLibrary(name).orElse(null);
+			if (lib != null && License.of(lib.folder()).isPresent())
+				throw new IOException("results with data of the licensed library "
+						+ name + " cannot be stored in a result matrix file");
+		}
+	}
+
+	private static double[] costsOf(ResultProvider provider) {
+		if (!provider.hasCosts())
+			return null;
+		int n = provider.techIndex().size();
+		var costs = new double[n];
+		for (int j = 0; j < n; j++) {
+			costs[j] = provider.unscaledCostsOf(j);
+		}
+		return costs;
+	}
+
+	/**
+	 * Reads the result matrix file and calculates the result from the stored
+	 * matrices. The indices of the file are resolved against the given
+	 * database, which must be the database in which the file was created. The
+	 * stored matrices already contain the columns of linked results,
+	 * sub-systems, and libraries, so that they are solved as they are, without
+	 * sub-results and library readers. The file is mapped into memory, so
+	 * that the matrices are read from it without copying the file first.
+	 */
+	public static ResultBundle read(IDatabase db, File file) throws IOException {
+		var bundle = readBundle(db, file);
+		if (FeatureFlag.DIRECT_SLCA.isEnabled()) {
+			SocialResult.calculate(db, bundle.result().provider())
+					.ifPresent(bundle::with);
+		}
+		return bundle;
+	}
+
+	/**
+	 * Reads the result matrix file like {@link #read} but without the
+	 * calculation of a social result.
+	 */
+	static ResultBundle readBundle(IDatabase db, File file) throws IOException {
+		MappedByteBuffer buffer;
+		try (var channel = FileChannel.open(
+				file.toPath(), StandardOpenOption.READ)) {
+			buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+		if (buffer.getInt() != MAGIC)
+			throw new IOException(file + " is not a result matrix file");
+		int version = buffer.getInt();
+		if (version != VERSION)
+			throw new IOException(
+					"unsupported version of result matrix file: " + version);
+		var dbName = readString(buffer);
+		if (!Objects.equals(dbName, db.getName()))
+			throw new IOException("the result matrix file was created in database "
+					+ dbName + " and cannot be opened in " + db.getName());
+
+		var setup = readSetup(db, buffer);
+		var dqSetup = readDQSetup(db, buffer);
+		double demand = buffer.getDouble();
+		var data = new MatrixData();
+		var impactRows = readIndices(db, buffer, setup, data);
+		data.demand = Demand.of(data.techIndex.at(0), demand);
+		data.costVector = readVector(buffer);
+		data.techMatrix = readMatrix(buffer, null, 0);
+		data.enviMatrix = readMatrix(buffer, null, 0);
+		data.impactMatrix = readMatrix(buffer, impactRows,
+				data.impactIndex != null ? data.impactIndex.size() : 0);
+
+		var context = SolverContext.of(db, data)
+				.withSolver(App.getSolver());
+		var result = new LcaResult(ResultProviders.solve(context));
+		var bundle = ResultBundle.of(setup, result);
+		if (dqSetup != null) {
+			bundle.with(DQResult.of(db, dqSetup, result.provider()));
+		}
+		return bundle;
+	}
+
+	// region setup
+
+	private static void writeSetup(
+			DataOutputStream out, CalculationSetup setup) throws IOException {
+		var target = (RootEntity) setup.target();
+		writeString(out, ModelType.of(target).name());
+		out.writeLong(target.id);
+		out.writeDouble(setup.amount());
+		out.writeLong(setup.unit() != null ? setup.unit().id : 0);
+		out.writeLong(setup.flowPropertyFactor() != null
+				? setup.flowPropertyFactor().id
+				: 0);
+		out.writeLong(setup.impactMethod() != null
+				? setup.impactMethod().id
+				: 0);
+		out.writeLong(setup.nwSet() != null ? setup.nwSet().id : 0);
+		writeString(out, setup.allocation() != null
+				? setup.allocation().name()
+				: null);
+		out.writeBoolean(setup.hasCosts());
+		out.writeBoolean(setup.hasRegionalization());
+		writeString(out, setup.parameterSetName());
+		var params = setup.parameters();
+		out.writeInt(params.size());
+		for (var p : params) {
+			writeString(out, p.name);
+			out.writeLong(p.contextId != null ? p.contextId : 0);
+			writeString(out, p.contextType != null ? p.contextType.name() : null);
+			out.writeDouble(p.value);
+		}
+	}
+
+	private static CalculationSetup readSetup(
+			IDatabase db, ByteBuffer buffer) throws IOException {
+		var type = ModelType.valueOf(readString(buffer));
+		long targetId = buffer.getLong();
+		var target = (CalculationTarget) db.get(type.getModelClass(), targetId);
+		if (target == null)
+			throw new IOException("the calculated " + type
+					+ " does not exist anymore: " + targetId);
+		var setup = CalculationSetup.of(target)
+				.withAmount(buffer.getDouble());
+
+		var unit = db.get(Unit.class, buffer.getLong());
+		if (unit != null) {
+			setup.withUnit(unit);
+		}
+		var factor = db.get(FlowPropertyFactor.class, buffer.getLong());
+		if (factor != null) {
+			setup.withFlowPropertyFactor(factor);
+		}
+		setup.withImpactMethod(db.get(ImpactMethod.class, buffer.getLong()));
+		setup.withNwSet(db.get(NwSet.class, buffer.getLong()));
+		var allocation = readString(buffer);
+		setup.withAllocation(allocation != null
+				? AllocationMethod.valueOf(allocation)
+				: null);
+		setup.withCosts(buffer.get() != 0);
+		setup.withRegionalization(buffer.get() != 0);
+
+		var paramSet = readString(buffer);
+		int paramCount = buffer.getInt();
+		var params = new ArrayList<ParameterRedef>(paramCount);
+		for (int i = 0; i < paramCount; i++) {
+			var p = new ParameterRedef();
+			p.name = readString(buffer);
+			long contextId = buffer.getLong();
+			p.contextId = contextId != 0 ? contextId : null;
+			var contextType = readString(buffer);
+			p.contextType = contextType != null
+					? ModelType.valueOf(contextType)
+					: null;
+			p.value = buffer.getDouble();
+			params.add(p);
+		}
+		setup.withParameterSetName(paramSet)
+				.withParameters(params);
+		return setup;
+	}
+
+	// endregion
+
+	// region data quality
+
+	/**
+	 * Writes the setup of the data quality result, if any. The data quality
+	 * result itself is not stored but calculated again from the setup when
+	 * the file is opened.
+	 */
+	private static void writeDQSetup(
+			DataOutputStream out, DQResult dqResult) throws IOException {
+		if (dqResult == null || dqResult.setup == null) {
+			out.writeBoolean(false);
+			return;
+		}
+		var dqSetup = dqResult.setup;
+		out.writeBoolean(true);
+		out.writeLong(dqSetup.processSystem != null
+				? dqSetup.processSystem.id
+				: 0);
+		out.writeLong(dqSetup.exchangeSystem != null
+				? dqSetup.exchangeSystem.id
+				: 0);
+		writeString(out, dqSetup.aggregationType != null
+				? dqSetup.aggregationType.name()
+				: null);
+		out.writeBoolean(dqSetup.ceiling);
+		writeString(out, dqSetup.naHandling != null
+				? dqSetup.naHandling.name()
+				: null);
+	}
+
+	private static DQSetup readDQSetup(IDatabase db, ByteBuffer buffer) {
+		if (buffer.get() == 0)
+			return null;
+		var dqSetup = new DQSetup();
+		dqSetup.processSystem = db.get(DQSystem.class, buffer.getLong());
+		dqSetup.exchangeSystem = db.get(DQSystem.class, buffer.getLong());
+		var aggregation = readString(buffer);
+		if (aggregation != null) {
+			dqSetup.aggregationType = AggregationType.valueOf(aggregation);
+		}
+		dqSetup.ceiling = buffer.get() != 0;
+		var naHandling = readString(buffer);
+		if (naHandling != null) {
+			dqSetup.naHandling = NAHandling.valueOf(naHandling);
+		}
+		return dqSetup.processSystem != null || dqSetup.exchangeSystem != null
+				? dqSetup
+				: null;
+	}
+
+	// endregion
+
+	// region indices
+
+	private static void writeIndices(
+			DataOutputStream out, ResultProvider provider) throws IOException {
+
+		var techIndex = provider.techIndex();
+		out.writeInt(techIndex.size());
+		for (int i = 0; i < techIndex.size(); i++) {
+			var techFlow = techIndex.at(i);
+			var techProvider = techFlow.provider();
+			writeString(out, techProvider.type.name());
+			out.writeLong(techProvider.id);
+			out.writeLong(techFlow.flow().id);
+		}
+
+		var enviIndex = provider.hasFlows() ? provider.enviIndex() : null;
+		if (enviIndex == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(enviIndex.size());
+			out.writeBoolean(enviIndex.isRegionalized());
+			for (int i = 0; i < enviIndex.size(); i++) {
+				var enviFlow = enviIndex.at(i);
+				if (enviFlow.isVirtual())
+					throw new IOException("results with virtual flows cannot be "
+							+ "stored in a result matrix file");
+				out.writeLong(enviFlow.flow().id);
+				out.writeLong(enviFlow.location() != null
+						? enviFlow.location().id
+						: 0);
+				out.writeBoolean(enviFlow.isInput());
+			}
+		}
+
+		var impactIndex = provider.hasImpacts() ? provider.impactIndex() : null;
+		if (impactIndex == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(impactIndex.size());
+			for (int i = 0; i < impactIndex.size(); i++) {
+				out.writeLong(impactIndex.at(i).id);
+			}
+		}
+	}
+
+	/**
+	 * Reads the matrix indices into the given matrix data. The impact index is
+	 * created from the impact method of the setup; as its order can differ from
+	 * the stored order, the positions of the stored impact rows in the created
+	 * index are returned.
+	 */
+	private static int[] readIndices(
+			IDatabase db, ByteBuffer buffer, CalculationSetup setup,
+			MatrixData data) throws IOException {
+
+		var cache = Cache.getEntityCache();
+		int techSize = buffer.getInt();
+		for (int i = 0; i < techSize; i++) {
+			var type = ModelType.valueOf(readString(buffer));
+			long providerId = buffer.getLong();
+			long flowId = buffer.getLong();
+			var provider = db.getDescriptor(type.getModelClass(), providerId);
+			var flow = cache.get(FlowDescriptor.class, flowId);
+			if (!(provider instanceof RootDescriptor p) || flow == null)
+				throw new IOException("the provider " + type + ":" + providerId
+						+ " of the result matrix file does not exist anymore");
+			var techFlow = TechFlow.of(p, flow);
+			if (i == 0) {
+				data.techIndex = new TechIndex(techFlow);
+			} else {
+				data.techIndex.add(techFlow);
+			}
+		}
+
+		int enviSize = buffer.getInt();
+		if (enviSize >= 0) {
+			data.enviIndex = buffer.get() != 0
+					? EnviIndex.createRegionalized()
+					: EnviIndex.create();
+			for (int i = 0; i < enviSize; i++) {
+				var flow = cache.get(FlowDescriptor.class, buffer.getLong());
+				long locationId = buffer.getLong();
+				var location = locationId != 0
+						? cache.get(LocationDescriptor.class, locationId)
+						: null;
+				boolean isInput = buffer.get() != 0;
+				if (flow == null)
+					throw new IOException(
+							"an intervention flow of the result matrix file does not exist anymore");
+				data.enviIndex.add(isInput
+						? EnviFlow.inputOf(flow, location)
+						: EnviFlow.outputOf(flow, location));
+			}
+		}
+
+		int impactSize = buffer.getInt();
+		if (impactSize < 0)
+			return null;
+		if (setup.impactMethod() == null)
+			throw new IOException(
+					"the impact method of the result matrix file does not exist anymore");
+		data.impactIndex = ImpactIndex.of(setup.impactMethod());
+		var positions = new TLongIntHashMap();
+		data.impactIndex.each((i, d) -> positions.put(d.id, i));
+		var rows = new int[impactSize];
+		for (int i = 0; i < impactSize; i++) {
+			long id = buffer.getLong();
+			if (!positions.containsKey(id))
+				throw new IOException("the impact category " + id
+						+ " of the result matrix file is not part of the impact method anymore");
+			rows[i] = positions.get(id);
+		}
+		return rows;
+	}
+
+	// endregion
+
+	// region matrices
+
+	private static void writeVector(
+			DataOutputStream out, double[] vector) throws IOException {
+		if (vector == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(vector.length);
+		for (double v : vector) {
+			out.writeDouble(v);
+		}
+	}
+
+	private static double[] readVector(ByteBuffer buffer) {
+		int size = buffer.getInt();
+		if (size < 0)
+			return null;
+		var vector = new double[size];
+		buffer.asDoubleBuffer().get(vector);
+		buffer.position(buffer.position() + size * Double.BYTES);
+		return vector;
+	}
+
+	/**
+	 * Writes the non-zero values of a matrix with the given size in compressed
+	 * sparse column format. The columns are requested one after the other
+	 * from the given function.
+	 */
+	private static void writeMatrix(
+			DataOutputStream out, int rows, int cols,
+			IntFunction<double[]> columnOf) throws IOException {
+		var pointers = new int[cols + 1];
+		var rowIndices = new TIntArrayList();
+		var values = new TDoubleArrayList();
+		for (int col = 0; col < cols; col++) {
+			var column = columnOf.apply(col);
+			for (int row = 0; row < column.length; row++) {
+				double v = column[row];
+				if (v == 0)
+					continue;
+				rowIndices.add(row);
+				values.add(v);
+			}
+			pointers[col + 1] = values.size();
+		}
+
+		out.writeInt(rows);
+		out.writeInt(cols);
+		out.writeInt(values.size());
+		for (int p : pointers) {
+			out.writeInt(p);
+		}
+		for (int i = 0; i < rowIndices.size(); i++) {
+			out.writeInt(rowIndices.getQuick(i));
+		}
+		for (int i = 0; i < values.size(); i++) {
+			out.writeDouble(values.getQuick(i));
+		}
+	}
+
+	/**
+	 * Reads a matrix in compressed sparse column format from the given
+	 * buffer. If row positions are given, the stored rows are moved to
+	 * these positions of a matrix with the given number of rows.
+	 */
+	private static MatrixReader readMatrix(
+			ByteBuffer buffer, int[] rowMap, int mappedRows) {
+		int rows = buffer.getInt();
+		if (rows < 0)
+			return null;
+		if (rowMap != null) {
+			rows = mappedRows;
+		}
+		int cols = buffer.getInt();
+		int count = buffer.getInt();
+
+		int start = buffer.position();
+		var pointers = buffer.duplicate().position(start).asIntBuffer();
+		var rowIndices = buffer.duplicate()
+				.position(start + (cols + 1) * Integer.BYTES)
+				.asIntBuffer();
+		var values = buffer.duplicate()
+				.position(start + (cols + 1 + count) * Integer.BYTES)
+				.asDoubleBuffer();
+
+		var matrix = new HashPointMatrix(rows, cols);
+		for (int col = 0; col < cols; col++) {
+			int end = pointers.get(col + 1);
+			for (int k = pointers.get(col); k < end; k++) {
+				int row = rowIndices.get(k);
+				if (rowMap != null) {
+					row = rowMap[row];
+				}
+				matrix.set(row, col, values.get(k));
+			}
+		}
+
+		buffer.position(start + (cols + 1 + count) * Integer.BYTES
+				+ count * Double.BYTES);
+		return matrix;
+	}
+
+	// endregion
+
+	private static void writeString(
+			DataOutputStream out, String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+			return;
+		}
+		var bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0)
+			return null;
+		var bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,117 @@
+package org.openlca.app.results;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.openlca.core.results.LcaResult;
+import org.openlca.core.results.providers.EagerResultProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes the data of the result pages in the background. When the first
+ * page of a result editor was rendered, the editor schedules the expensive
+ * computations of its other pages in the order in which the pages are likely
+ * to be used. The computations run
+ * one after another in a separate thread, so that they do not compete with
+ * the pages that are rendered in the UI thread. A page then requests its
+ * data via {@link #get}: if the data were already computed, they are returned
+ * directly; if the computation is running, the page waits for it; and if it
+ * was not scheduled, it is computed in the calling thread.
+ * <p>
+ * The computations read the result in parallel with the UI thread. This is
+ * only safe for eager results, which contain all their matrices when they
+ * are created; lazy results compute and cache their data on demand, and
+ * these caches are not thread safe. Thus, computations should only be
+ * scheduled when {@link #canRun} returns {@code true}.
+ * <p>
+ * When the editor is closed, the computations that have not started yet are
+ * canceled. As a running computation cannot be interrupted, the result of
+ * the editor is disposed after that computation has finished.
+ */
+public final class ResultPrecompute {
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+	private final Map<String, Future<?>> tasks = new HashMap<>();
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+		var thread = new Thread(r, "result-precompute");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+	private boolean closed;
+
+	/**
+	 * Returns true if the data of the given result can be computed in the
+	 * background, which is the case for eager results.
+	 */
+	public static boolean canRun(LcaResult result) {
+		return result != null
+				&& result.provider() instanceof EagerResultProvider;
+	}
+
+	/**
+	 * Schedules the computation of the data with the given key. Computations
+	 * are executed in the order in which they are scheduled.
+	 */
+	public synchronized void schedule(String key, Supplier<?> fn) {
+		if (closed || key == null || fn == null || tasks.containsKey(key))
+			return;
+		tasks.put(key, executor.submit(() -> {
+			try {
+				return fn.get();
+			} catch (Exception e) {
+				log.warn("failed to precompute " + key, e);
+				throw e;
+			}
+		}));
+	}
+
+	/**
+	 * Returns the data with the given key. If the data were scheduled for
+	 * computation, this waits until they are available. Otherwise, or if the
+	 * computation failed, the data are computed with the given function in
+	 * the calling thread.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key, Supplier<T> fn) {
+		Future<?> task;
+		synchronized (this) {
+			task = tasks.get(key);
+		}
+		if (task != null) {
+			try {
+				return (T) task.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (CancellationException | ExecutionException e) {
+				log.trace("precomputation of {} not available", key);
+			}
+		}
+		return fn.get();
+	}
+
+	/**
+	 * Cancels the computations that have not started yet and runs the given
+	 * function after a running computation has finished.
+	 */
+	synchronized void close(Runnable onFinished) {
+		if (closed)
+			return;
+		closed = true;
+		for (var task : tasks.values()) {
+			task.cancel(false);
+		}
+		tasks.clear();
+		if (onFinished != null) {
+			executor.execute(onFinished);
+		}
+		executor.shutdown();
+	}
+}
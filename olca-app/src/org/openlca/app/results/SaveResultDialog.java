@@ -15,6 +15,7 @@ import org.openlca.app.App;
 import org.openlca.app.M;
 import org.openlca.app.db.Database;
 import org.openlca.app.navigation.Navigator;
+import org.openlca.app.rcp.images.Icon;
 import org.openlca.app.rcp.images.Images;
 import org.openlca.app.util.Categories;
 import org.openlca.app.util.Controls;
@@ -32,6 +33,7 @@ public class SaveResultDialog extends FormDialog {
 	private Text nameText;
 	private Button resultRadio;
 	private Button processRadio;
+	private Button matrixFileRadio;
 	private Button metaCheck;
 
 	public static void open(ResultEditor editor) {
@@ -53,7 +55,7 @@ public class SaveResultDialog extends FormDialog {
 
 	@Override
 	protected Point getInitialSize() {
-		return UI.initialSizeOf(this, 600, 350);
+		return UI.initialSizeOf(this, 600, 400);
 	}
 
 	@Override
@@ -86,11 +88,20 @@ public class SaveResultDialog extends FormDialog {
 		metaCheck.setSelection(true);
 		metaCheck.setEnabled(false);
 
+		matrixFileRadio = Selector.forMatrixFile(groupComp, tk).button;
+
 		Controls.onSelect(processRadio, $ -> {
 			resultRadio.setSelection(false);
+			matrixFileRadio.setSelection(false);
 			metaCheck.setEnabled(true);
 		});
 		Controls.onSelect(resultRadio, $ -> {
+			processRadio.setSelection(false);
+			matrixFileRadio.setSelection(false);
+			metaCheck.setEnabled(false);
+		});
+		Controls.onSelect(matrixFileRadio, $ -> {
+			resultRadio.setSelection(false);
 			processRadio.setSelection(false);
 			metaCheck.setEnabled(false);
 		});
@@ -98,6 +109,12 @@ public class SaveResultDialog extends FormDialog {
 
 	@Override
 	protected void okPressed() {
+		if (matrixFileRadio.getSelection()) {
+			var name = nameText.getText();
+			super.okPressed();
+			ResultMatrixFile.save(editor, name);
+			return;
+		}
 		var exec = new Exec(nameText.getText(), editor)
 			.createProcess(processRadio.getSelection())
 			.withMetaData(metaCheck.getSelection());
@@ -168,6 +185,14 @@ public class SaveResultDialog extends FormDialog {
 			return new Selector(group, button);
 		}
 
+		static Selector forMatrixFile(Composite comp, FormToolkit tk) {
+			makeIcon(comp, tk, Icon.ANALYSIS_RESULT.get());
+			var group = makeGroup(comp, tk);
+			var button = UI.radio(group, tk, M.AsResultMatrixFile);
+			button.setSelection(false);
+			return new Selector(group, button);
+		}
+
 		private static Group makeGroup(Composite comp, FormToolkit tk) {
 			var group = UI.group(comp, tk);
 			UI.fillHorizontal(group);
@@ -18,6 +18,8 @@ import org.openlca.util.Strings;
 
 public class AnalysisGroupsPage extends FormPage {
 
+	private static final String GROUPS = "AnalysisGroupsPage.groups";
+
 	private final ResultEditor editor;
 	private final ProductSystem system;
 	private final List<AnalysisGroup> groups;
@@ -31,6 +33,15 @@ public class AnalysisGroupsPage extends FormPage {
 		this.groups.sort((g1, g2) -> Strings.compare(g1.name, g2.name));
 	}
 
+	/**
+	 * Schedules the calculation of the analysis group results of the given
+	 * editor in the background.
+	 */
+	public static void schedule(ResultEditor editor, ProductSystem system) {
+		editor.precompute().schedule(
+				GROUPS, () -> GroupResults.of(editor, system));
+	}
+
 	@Override
 	protected void createFormContent(IManagedForm mform) {
 		var form = UI.header(mform,
@@ -47,9 +58,10 @@ public class AnalysisGroupsPage extends FormPage {
 		var ref = new AtomicReference<List<ImpactGroupResult>>();
 		App.runWithProgress("Calculate group results...",
 				() -> {
-					result = AnalysisGroupResult.of(system, editor.result());
-					var indicators = editor.items().impacts();
-					ref.set(ImpactGroupResult.allOf(indicators, result));
+					var r = editor.precompute().get(
+							GROUPS, () -> GroupResults.of(editor, system));
+					result = r.result();
+					ref.set(r.impacts());
 				},
 				() -> {
 					var results = ref.get();
@@ -61,4 +73,15 @@ public class AnalysisGroupsPage extends FormPage {
 					contibutions.setResult(result);
 				});
 	}
+
+	private record GroupResults(
+			AnalysisGroupResult result, List<ImpactGroupResult> impacts) {
+
+		static GroupResults of(ResultEditor editor, ProductSystem system) {
+			var result = AnalysisGroupResult.of(system, editor.result());
+			var indicators = editor.items().impacts();
+			return new GroupResults(
+					result, ImpactGroupResult.allOf(indicators, result));
+		}
+	}
 }
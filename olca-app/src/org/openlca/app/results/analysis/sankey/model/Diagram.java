@@ -1,5 +1,8 @@
 package org.openlca.app.results.analysis.sankey.model;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.openlca.app.results.analysis.sankey.SankeyConfig;
 import org.openlca.app.results.analysis.sankey.SankeyEditor;
 import org.openlca.app.components.graphics.model.BaseComponent;
@@ -12,6 +15,9 @@ public class Diagram extends BaseComponent {
 	public final int orientation;
 	private SankeyNode referenceNode;
 
+	/** The diagram nodes indexed by their nodes of the Sankey graph. */
+	private final Map<Sankey.Node, SankeyNode> nodes = new HashMap<>();
+
 	public Diagram(SankeyEditor editor, int orientation) {
 		this.editor = editor;
 		this.orientation = orientation;
@@ -22,13 +28,43 @@ public class Diagram extends BaseComponent {
 	}
 
 	public SankeyNode getNode(Sankey.Node node) {
-		for (var child : getChildren()) {
-			if (child instanceof SankeyNode sankeyNode) {
-				if (sankeyNode.node.equals(node))
-					return sankeyNode;
-			}
+		return node != null ? nodes.get(node) : null;
+	}
+
+	@Override
+	public void addChild(Component child, int index) {
+		index(child);
+		super.addChild(child, index);
+	}
+
+	@Override
+	public void addChildQuietly(Component child) {
+		index(child);
+		super.addChildQuietly(child);
+	}
+
+	@Override
+	public boolean removeChild(Component child) {
+		unindex(child);
+		return super.removeChild(child);
+	}
+
+	@Override
+	public boolean removeChildQuietly(Component child) {
+		unindex(child);
+		return super.removeChildQuietly(child);
+	}
+
+	private void index(Component child) {
+		if (child instanceof SankeyNode n && n.node != null) {
+			nodes.putIfAbsent(n.node, n);
+		}
+	}
+
+	private void unindex(Component child) {
+		if (child instanceof SankeyNode n && n.node != null) {
+			nodes.remove(n.node, n);
 		}
-		return null;
 	}
 
 	public SankeyNode getReferenceNode() {
@@ -1,13 +1,35 @@
 package org.openlca.app.results.analysis.sankey.model;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.openlca.app.App;
 import org.openlca.app.M;
 import org.openlca.app.results.analysis.sankey.SankeyEditor;
 import org.openlca.core.results.Sankey;
 
+/**
+ * Creates the diagram of the Sankey editor. The Sankey graph and the diagram
+ * model are both created in a background thread, so that the editor only
+ * needs to create the edit parts of the complete diagram in the UI thread.
+ * The Sankey graphs of the last configurations are kept, so that switching
+ * back to a previous selection, cutoff, or node count does not calculate
+ * the graph again.
+ */
 public class SankeyFactory {
 
+	/** The maximum number of Sankey graphs that are kept. */
+	private static final int MAX_CACHED = 8;
+
 	private final SankeyEditor editor;
+	private final Map<Key, Sankey<?>> cache =
+			new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Key, Sankey<?>> e) {
+					return size() > MAX_CACHED;
+				}
+			};
 
 	public SankeyFactory(SankeyEditor editor) {
 		this.editor = editor;
@@ -22,39 +44,62 @@ public class SankeyFactory {
 			return new Diagram(editor, config.orientation());
 
 		var diagram = new Diagram(editor, config.orientation());
-		App.runWithProgress(M.CalculateSankeyResultsDots,
-				() -> editor.setSankey(Sankey.of(
-						config.selection(), editor.result.provider())
-						.withMinimumShare(config.cutoff())
-						.withMaximumNodeCount(config.maxCount())
-						.build()),
-				() -> {
-					if (editor.getSankey() == null)
-						return;
-
-					// create the nodes
-					editor.getSankey().traverse(n -> {
-						var node = new SankeyNode(n, editor.getSankey());
-						diagram.addChild(node);
-					});
-
-					// create the links
-					editor.getSankey().traverse(n -> {
-						var target = diagram.getNode(n);
-						if (target == null)
-							return;
-						for (var provider : n.providers) {
-							var source = diagram.getNode(provider);
-							if (source == null)
-								continue;
-							var linkShare = editor.getSankey().getLinkShare(provider, n);
-							var ratio = linkShare * provider.share;
-							new SankeyLink(source, target, ratio);
-						}
-					});
-				});
-
+		var key = new Key(config.selection(), config.cutoff(), config.maxCount());
+		App.runWithProgress(M.CalculateSankeyResultsDots, () -> {
+			var sankey = sankeyOf(key);
+			editor.setSankey(sankey);
+			if (sankey != null) {
+				fill(diagram, sankey);
+			}
+		});
 		return diagram;
 	}
 
+	private Sankey<?> sankeyOf(Key key) {
+		synchronized (cache) {
+			var cached = cache.get(key);
+			if (cached != null)
+				return cached;
+		}
+		var sankey = Sankey.of(key.selection, editor.result.provider())
+				.withMinimumShare(key.cutoff)
+				.withMaximumNodeCount(key.maxCount)
+				.build();
+		if (sankey != null) {
+			synchronized (cache) {
+				cache.put(key, sankey);
+			}
+		}
+		return sankey;
+	}
+
+	/**
+	 * Adds the nodes and links of the given Sankey graph to the diagram. The
+	 * nodes are added quietly, as the diagram is not yet displayed.
+	 */
+	private void fill(Diagram diagram, Sankey<?> sankey) {
+		var nodes = new ArrayList<Sankey.Node>();
+		sankey.traverse(n -> {
+			nodes.add(n);
+			diagram.addChildQuietly(new SankeyNode(n, sankey));
+		});
+
+		for (var n : nodes) {
+			var target = diagram.getNode(n);
+			if (target == null)
+				continue;
+			for (var provider : n.providers) {
+				var source = diagram.getNode(provider);
+				if (source == null)
+					continue;
+				var linkShare = sankey.getLinkShare(provider, n);
+				var ratio = linkShare * provider.share;
+				new SankeyLink(source, target, ratio);
+			}
+		}
+	}
+
+	private record Key(Object selection, double cutoff, int maxCount) {
+	}
+
 }
@@ -29,6 +29,8 @@ import org.openlca.core.results.TagResult;
 
 public class TagResultPage extends FormPage {
 
+	private static final String TAGS = "TagResultPage.tags";
+
 	private final ResultEditor editor;
 	private final List<TagResult> tagResults;
 	private TableViewer table;
@@ -39,6 +41,15 @@ public class TagResultPage extends FormPage {
 		this.tagResults = new ArrayList<>();
 	}
 
+	/**
+	 * Schedules the calculation of the tag results of the given editor in the
+	 * background.
+	 */
+	public static void schedule(ResultEditor editor) {
+		editor.precompute().schedule(
+			TAGS, () -> TagResult.allOf(editor.result()));
+	}
+
 	@Override
 	protected void createFormContent(IManagedForm mform) {
 		var form = UI.header(mform,
@@ -67,7 +78,8 @@ public class TagResultPage extends FormPage {
 
 		App.runWithProgress(M.CalculateTagsResultsDots, () -> {
 			tagResults.clear();
-			tagResults.addAll(TagResult.allOf(editor.result()));
+			tagResults.addAll(editor.precompute().get(
+				TAGS, () -> TagResult.allOf(editor.result())));
 		}, selector::initWithEvent);
 	}
 
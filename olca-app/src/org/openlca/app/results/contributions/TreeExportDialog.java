@@ -3,6 +3,7 @@ package org.openlca.app.results.contributions;
 import java.io.File;
 
 import org.eclipse.jface.dialogs.IDialogConstants;
+import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.jface.window.Window;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
@@ -11,11 +12,11 @@ import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Text;
 import org.eclipse.ui.forms.FormDialog;
 import org.eclipse.ui.forms.IManagedForm;
-import org.openlca.app.App;
 import org.openlca.app.M;
 import org.openlca.app.components.FileChooser;
 import org.openlca.app.util.Colors;
 import org.openlca.app.util.Controls;
+import org.openlca.app.util.ErrorReporter;
 import org.openlca.app.util.MsgBox;
 import org.openlca.app.util.UI;
 import org.openlca.core.results.UpstreamTree;
@@ -63,9 +64,25 @@ class TreeExportDialog extends FormDialog {
 		fileText.setBackground(Colors.white());
 		var fileBtn = UI.button(comp, tk, M.Browse);
 		UI.gridData(fileBtn, false, false).horizontalAlignment = SWT.FILL;
+		UI.filler(comp, tk);
+		var csvCheck = UI.checkbox(comp, tk, M.FlatCsvFile);
+		UI.filler(comp, tk);
+		Controls.onSelect(csvCheck, e -> {
+			// the file format is selected via the file extension
+			if (file != null
+					&& UpstreamTreeExport.isCsv(file) != csvCheck.getSelection()) {
+				file = null;
+				fileText.setText("");
+				var ok = getButton(IDialogConstants.OK_ID);
+				if (ok != null) {
+					ok.setEnabled(false);
+				}
+			}
+		});
 		Controls.onSelect(fileBtn, e -> {
-			var f = FileChooser.forSavingFile(
-					M.Export, "contribution_tree.xlsx");
+			var f = FileChooser.forSavingFile(M.Export, csvCheck.getSelection()
+					? "contribution_tree.csv"
+					: "contribution_tree.xlsx");
 			if (f != null) {
 				file = f;
 				fileText.setText(file.getAbsolutePath());
@@ -182,7 +199,11 @@ class TreeExportDialog extends FormDialog {
 
 		// close the dialog and start the export
 		super.okPressed();
-		App.runWithProgress(M.ExportingContributionTreeDots, export);
+		try {
+			new ProgressMonitorDialog(UI.shell()).run(true, true, export);
+		} catch (Exception e) {
+			ErrorReporter.on("Failed to export contribution tree", e);
+		}
 	}
 
 }
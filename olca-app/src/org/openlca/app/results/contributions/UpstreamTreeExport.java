@@ -1,8 +1,12 @@
 package org.openlca.app.results.contributions;
 
-import gnu.trove.list.array.TDoubleArrayList;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jface.operation.IRunnableWithProgress;
+import org.openlca.app.M;
 import org.openlca.app.util.CostResultDescriptor;
 import org.openlca.app.util.Labels;
 import org.openlca.core.matrix.index.EnviFlow;
@@ -20,9 +24,27 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Writes an upstream tree to a file. The tree is written to an Excel file
+ * with a streaming workbook that keeps only a small window of rows in memory,
+ * or, when the file has a {@code .csv} extension, to a flat CSV file with one
+ * row per tree node. As the columns of the result values in the Excel file
+ * depend on the depth of the tree, the tree is traversed twice for Excel
+ * files; the CSV export writes the rows in a single traversal and has no row
+ * limit, and should be used for very large trees.
+ */
+class UpstreamTreeExport implements IRunnableWithProgress {
 
-class UpstreamTreeExport implements Runnable {
+	/**
+	 * The maximum number of rows of a streaming sheet that are kept in memory.
+	 */
+	private static final int ROW_WINDOW = 500;
 
 	/**
 	 * The maximum number of levels that should be exported. A value < 0 means
@@ -48,61 +70,77 @@ class UpstreamTreeExport implements Runnable {
 	private final File file;
 	private final UpstreamTree tree;
 
-	private Sheet sheet;
+	private IProgressMonitor monitor;
 	private int row;
+	private int maxRow;
 	private int maxColumn;
 	private double totalResult;
-	private final TDoubleArrayList results = new TDoubleArrayList(100);
-	private final TDoubleArrayList direct = new TDoubleArrayList(100);
 
 	UpstreamTreeExport(File file, UpstreamTree tree) {
 		this.file = file;
 		this.tree = tree;
 	}
 
+	static boolean isCsv(File file) {
+		return file != null
+				&& file.getName().toLowerCase().endsWith(".csv");
+	}
+
 	@Override
-	public void run() {
+	public void run(IProgressMonitor monitor) {
 		Logger log = LoggerFactory.getLogger(getClass());
 		if (file == null || tree == null) {
 			log.error("invalid input, file or tree is null");
 			return;
 		}
-		try (var wb = new XSSFWorkbook()) {
-			sheet = wb.createSheet("Upstream tree");
+		this.monitor = monitor;
+		monitor.beginTask(M.ExportingContributionTreeDots,
+				IProgressMonitor.UNKNOWN);
+		totalResult = tree.root.result();
+		File tmp = null;
+		try {
+			// the export is written to a temporary file that replaces the
+			// target file when it is complete, so that a canceled export
+			// does not touch an existing file
+			tmp = File.createTempFile(
+					"olca-export", ".tmp", file.getAbsoluteFile().getParentFile());
+			if (isCsv(file)) {
+				writeCsv(tmp);
+			} else {
+				writeExcel(tmp);
+			}
+			if (!monitor.isCanceled()) {
+				Files.move(tmp.toPath(), file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (Exception e) {
+			log.error("Tree export failed", e);
+			throw new RuntimeException(e);
+		} finally {
+			if (tmp != null && tmp.exists()) {
+				tmp.delete();
+			}
+		}
+		monitor.done();
+	}
 
-			var bold = Excel.createBoldStyle(wb);
-			Excel.cell(sheet, 0, 0,
-							"Upstream contributions to: " + refName())
-					.ifPresent(c -> c.setCellStyle(bold));
-			Excel.cell(sheet, 1, 0, "Processes")
-					.ifPresent(c -> c.setCellStyle(bold));
+	private void writeExcel(File out) throws Exception {
+		// 1048575 is the maximum row number of an Excel sheet.
+		maxRow = 1048574;
+
+		// first, determine the number of columns of the tree
+		row = 1;
+		maxColumn = 0;
+		traverse(new Path(tree.root), path -> {
+			row++;
+			maxColumn = Math.max(path.length, maxColumn);
+		});
+		if (monitor.isCanceled())
+			return;
 
-			// write the tree
-			row = 1;
-			maxColumn = 0;
-			totalResult = tree.root.result();
-			Path path = new Path(tree.root);
-			traverse(path);
-
-			// write the result values
-			var unit = unit();
-			var resultHeader = Strings.nullOrEmpty(unit)
-					? "Result"
-					: "Result [" + unit + "]";
-			var directHeader = Strings.notEmpty(unit)
-					? "Direct contribution [" + unit + "]"
-					: "Direct contribution";
-			Excel.cell(sheet, 1, maxColumn + 1, resultHeader)
-					.ifPresent(c -> c.setCellStyle(bold));
-			Excel.cell(sheet, 1, maxColumn + 2, directHeader)
-					.ifPresent(c -> c.setCellStyle(bold));
-			for (int i = 0; i < results.size(); i++) {
-				Excel.cell(sheet, i + 2, maxColumn + 1, results.get(i));
-				var d = direct.get(i);
-				if (d != 0) {
-					Excel.cell(sheet, i + 2, maxColumn + 2, d);
-				}
-			}
+		var wb = new SXSSFWorkbook(ROW_WINDOW);
+		try {
+			var sheet = wb.createSheet("Upstream tree");
 
 			// set the column widths
 			for (int col = 0; col < maxColumn; col++) {
@@ -112,17 +150,91 @@ class UpstreamTreeExport implements Runnable {
 			sheet.setColumnWidth(maxColumn + 1, 25 * 255);
 			sheet.setColumnWidth(maxColumn + 2, 25 * 255);
 
+			var bold = Excel.createBoldStyle(wb);
+			Excel.cell(sheet, 0, 0,
+							"Upstream contributions to: " + refName())
+					.ifPresent(c -> c.setCellStyle(bold));
+			Excel.cell(sheet, 1, 0, "Processes")
+					.ifPresent(c -> c.setCellStyle(bold));
+			writeResultHeaders(sheet, bold);
+
+			// write the tree
+			row = 1;
+			traverse(new Path(tree.root), path -> write(sheet, path));
+			if (monitor.isCanceled())
+				return;
+
 			// write the file
-			try (var fout = new FileOutputStream(file);
+			try (var fout = new FileOutputStream(out);
 					 var buff = new BufferedOutputStream(fout)) {
 				wb.write(buff);
 			}
-		} catch (Exception e) {
-			log.error("Tree export failed", e);
-			throw new RuntimeException(e);
+		} finally {
+			wb.dispose();
+			wb.close();
+		}
+	}
+
+	private void writeResultHeaders(Sheet sheet, CellStyle bold) {
+		Excel.cell(sheet, 1, maxColumn + 1, resultHeader())
+				.ifPresent(c -> c.setCellStyle(bold));
+		Excel.cell(sheet, 1, maxColumn + 2, directHeader())
+				.ifPresent(c -> c.setCellStyle(bold));
+	}
+
+	private void write(Sheet sheet, Path path) {
+		row++;
+		var node = path.node;
+		if (node.provider() != null
+				&& node.provider().provider() != null) {
+			var label = Labels.name(node.provider().provider());
+			Excel.cell(sheet, row, path.length, label);
+		}
+		Excel.cell(sheet, row, maxColumn + 1, node.result());
+		var d = node.directContribution();
+		if (d != 0) {
+			Excel.cell(sheet, row, maxColumn + 2, d);
 		}
 	}
 
+	private void writeCsv(File out) throws Exception {
+		maxRow = Integer.MAX_VALUE;
+		row = 0;
+		try (var writer = Files.newBufferedWriter(
+				out.toPath(), StandardCharsets.UTF_8);
+				 var csv = CSVFormat.DEFAULT.print(writer)) {
+			csv.printRecord("Level", "Process", resultHeader(), directHeader());
+			traverse(new Path(tree.root), path -> {
+				row++;
+				var node = path.node;
+				var label = node.provider() != null
+						&& node.provider().provider() != null
+						? Labels.name(node.provider().provider())
+						: "";
+				try {
+					csv.printRecord(path.length, label,
+							node.result(), node.directContribution());
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+		}
+	}
+
+	private String resultHeader() {
+		var unit = unit();
+		return Strings.nullOrEmpty(unit)
+				? "Result"
+				: "Result [" + unit + "]";
+	}
+
+	private String directHeader() {
+		var unit = unit();
+		return Strings.notEmpty(unit)
+				? "Direct contribution [" + unit + "]"
+				: "Direct contribution";
+	}
+
 	private String refName() {
 		var ref = tree.ref;
 		if (ref == null)
@@ -154,13 +266,15 @@ class UpstreamTreeExport implements Runnable {
 		return "";
 	}
 
-	private void traverse(Path path) {
+	/**
+	 * Traverses the tree in depth-first order and passes the paths of the
+	 * nodes that should be exported to the given function. The function is
+	 * expected to increment the row counter.
+	 */
+	private void traverse(Path path, Consumer<Path> fn) {
 
-		if (row >= 1048574) {
-			// 1048575 is the maximum row number of an
-			// Excel sheet.
+		if (row >= maxRow || monitor.isCanceled())
 			return;
-		}
 
 		var node = path.node;
 		double result = path.node.result();
@@ -183,26 +297,12 @@ class UpstreamTreeExport implements Runnable {
 		}
 
 		// write the node and expand the child nodes
-		write(path);
+		fn.accept(path);
 		for (var child : tree.childs(node)) {
-			traverse(path.append(child));
+			traverse(path.append(child), fn);
 		}
 	}
 
-	private void write(Path path) {
-		row++;
-		results.add(path.node.result());
-		direct.add(path.node.directContribution());
-		int col = path.length;
-		maxColumn = Math.max(col, maxColumn);
-		var node = path.node;
-		if (node.provider() == null
-				|| node.provider().provider() == null)
-			return;
-		var label = Labels.name(node.provider().provider());
-		Excel.cell(sheet, row, col, label);
-	}
-
 	private static class Path {
 		final Path prefix;
 		final UpstreamNode node;
@@ -41,8 +41,10 @@ import org.openlca.util.Strings;
  */
 public class LocationPage extends FormPage {
 
+	private static final String LOCATIONS = "LocationPage.locations";
+
 	final ResultEditor editor;
-	private final LocationResult locations;
+	private LocationResult locations;
 
 	private Combo combos;
 	private TreeViewer tree;
@@ -54,7 +56,18 @@ public class LocationPage extends FormPage {
 	public LocationPage(ResultEditor editor) {
 		super(editor, "analysis.MapPage", M.Locations);
 		this.editor = editor;
-		this.locations = new LocationResult(editor.result(), Database.get());
+	}
+
+	/**
+	 * Schedules the calculation of the location results of the given editor
+	 * in the background.
+	 */
+	public static void schedule(ResultEditor editor) {
+		editor.precompute().schedule(LOCATIONS, () -> locationsOf(editor));
+	}
+
+	private static LocationResult locationsOf(ResultEditor editor) {
+		return new LocationResult(editor.result(), Database.get());
 	}
 
 	public Object getSelection() {
@@ -63,6 +76,8 @@ public class LocationPage extends FormPage {
 
 	@Override
 	protected void createFormContent(IManagedForm mform) {
+		locations = editor.precompute().get(
+				LOCATIONS, () -> locationsOf(editor));
 		var form = UI.header(mform,
 				Labels.name(editor.setup().target()),
 				Icon.ANALYSIS_RESULT.get());
@@ -8,6 +8,7 @@ import org.openlca.app.util.Labels;
 import org.openlca.core.matrix.index.TechFlow;
 import org.openlca.core.model.FlowType;
 import org.openlca.core.results.LcaResult;
+import org.openlca.util.Strings;
 
 class ProviderItem implements Item {
 
@@ -18,6 +19,8 @@ class ProviderItem implements Item {
 	double costValue;
 	double costShare;
 
+	private String[] searchNames;
+
 	private ProviderItem(int index, TechFlow product) {
 		this.index = index;
 		this.product = product;
@@ -78,6 +81,21 @@ class ProviderItem implements Item {
 		return Labels.name(product);
 	}
 
+	/**
+	 * Returns the lower case names of the provider and product of this item
+	 * for the search filter. The names are created on the first call.
+	 */
+	String[] searchNames() {
+		if (searchNames != null)
+			return searchNames;
+		searchNames = product == null
+			? new String[0]
+			: new String[]{
+			Strings.orEmpty(Labels.name(product.provider())).toLowerCase(),
+			Strings.orEmpty(Labels.name(product.flow())).toLowerCase()};
+		return searchNames;
+	}
+
 	Long categoryID() {
 		return product == null || product.provider() == null
 			? null
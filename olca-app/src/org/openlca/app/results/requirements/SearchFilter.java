@@ -3,7 +3,6 @@ package org.openlca.app.results.requirements;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.function.Predicate;
@@ -12,7 +11,6 @@ import java.util.stream.Collectors;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.swt.widgets.Text;
-import org.openlca.app.util.Labels;
 import org.openlca.util.Strings;
 
 class SearchFilter extends ViewerFilter {
@@ -71,13 +69,11 @@ class SearchFilter extends ViewerFilter {
 			return null;
 
 		Predicate<ProviderItem> match = item -> {
-			if (item.product == null)
-				return false;
-			var processName = Labels.name(item.product.provider());
-			if (matches(processName, query))
-				return true;
-			var flowName = Labels.name(item.product.flow());
-			return matches(flowName, query);
+			for (var name : item.searchNames()) {
+				if (matches(name, query))
+					return true;
+			}
+			return false;
 		};
 
 		return model.providers.stream()
@@ -94,15 +90,6 @@ class SearchFilter extends ViewerFilter {
 		if (providers.isEmpty())
 			return new HashSet<>();
 
-		// index all category items; top down in the trees
-		var index = new HashMap<Long, CategoryItem>();
-		var queue = new ArrayDeque<>(model.categories);
-		while (!queue.isEmpty()) {
-			var item = queue.poll();
-			index.put(item.category.id, item);
-			queue.addAll(item.childs);
-		}
-
 		// select the visible categories; bottom up
 		// starting from the filtered providers
 		var filtered = new HashSet<CategoryItem>();
@@ -110,13 +97,13 @@ class SearchFilter extends ViewerFilter {
 			var catID = provider.categoryID();
 			if (catID == null)
 				continue;
-			var category = index.get(catID);
+			var category = model.categoryIndex.get(catID);
 			if (category != null) {
 				filtered.add(category);
 			}
 		}
 
-		queue = new ArrayDeque<>(filtered);
+		var queue = new ArrayDeque<>(filtered);
 		while (!queue.isEmpty()) {
 			var visible = queue.poll();
 			var parentID = visible.category.category == null
@@ -124,7 +111,7 @@ class SearchFilter extends ViewerFilter {
 				: visible.category.category.id;
 			if (parentID == null)
 				continue;
-			var next = index.get(parentID);
+			var next = model.categoryIndex.get(parentID);
 			if (next == null)
 				continue;
 			filtered.add(next);
@@ -134,12 +121,11 @@ class SearchFilter extends ViewerFilter {
 		return filtered;
 	}
 
-	private boolean matches(String term, List<String> query) {
-		if (Strings.nullOrEmpty(term))
+	private boolean matches(String name, List<String> query) {
+		if (Strings.nullOrEmpty(name))
 			return false;
-		var feed = term.toLowerCase();
 		for (var part : query) {
-			if (!feed.contains(part))
+			if (!name.contains(part))
 				return false;
 		}
 		return true;
@@ -58,6 +58,7 @@ public class TotalRequirementsSection {
 		var label = new LabelProvider(dqResult, costs);
 		tree = Trees.createViewer(comp, columnLabels(), label);
 		tree.getTree().setLinesVisible(true);
+		tree.setUseHashlookup(true);
 		var model = new TreeModel(result, costs);
 		tree.setContentProvider(model);
 		tree.setFilters(new SearchFilter(this, model, searchText));
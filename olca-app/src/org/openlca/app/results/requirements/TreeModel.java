@@ -1,54 +1,140 @@
 package org.openlca.app.results.requirements;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.Viewer;
 import org.openlca.core.results.LcaResult;
 
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+
+/**
+ * The content of the total requirements tree. The provider and category items
+ * are created once for an input and indexed by category, so that expanding a
+ * category does not scan all providers again. The rows of the child items of
+ * a provider are calculated when the provider is expanded the first time and
+ * are then cached.
+ */
 class TreeModel implements ITreeContentProvider {
 
 	List<ProviderItem> providers;
 	List<CategoryItem> categories;
 
+	/**
+	 * Contains all category items of the tree (also the child categories),
+	 * mapped by their category IDs.
+	 */
+	final TLongObjectHashMap<CategoryItem> categoryIndex =
+		new TLongObjectHashMap<>();
+
 	private final LcaResult result;
 	private final Costs costs;
 	private final Object[] empty = new Object[0];
 
+	private final TLongObjectHashMap<List<ProviderItem>> providersByCategory =
+		new TLongObjectHashMap<>();
+	private final TLongObjectHashMap<Object[]> categoryRows =
+		new TLongObjectHashMap<>();
+	private final TIntObjectHashMap<Object[]> childRows =
+		new TIntObjectHashMap<>();
+	private Object[] roots;
+
 	TreeModel(LcaResult result, Costs costs) {
 		this.result = result;
 		this.costs = costs;
 	}
 
+	@Override
+	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+		if (oldInput == newInput)
+			return;
+		providers = null;
+		categories = null;
+		roots = null;
+		categoryIndex.clear();
+		providersByCategory.clear();
+		categoryRows.clear();
+		childRows.clear();
+	}
+
 	@Override
 	public Object[] getElements(Object input) {
 		if (!(input instanceof LcaResult))
 			return empty;
+		if (roots == null) {
+			roots = index();
+		}
+		return roots;
+	}
+
+	/**
+	 * Creates the provider and category items and indexes them. Returns the
+	 * root elements of the tree.
+	 */
+	private Object[] index() {
 		providers = ProviderItem.allOf(result, costs);
-		if (providers.size() < 20) {
+		if (providers.size() < 20)
 			return providers.toArray();
-		}
+
+		var roots = new ArrayList<Object>();
 		categories = CategoryItem.allOf(providers);
-		var uncat = providers.stream().filter(
-			p -> p.categoryID() == null);
-		return Stream.concat(categories.stream(), uncat).toArray();
+		roots.addAll(categories);
+		var queue = new ArrayDeque<>(categories);
+		while (!queue.isEmpty()) {
+			var item = queue.poll();
+			categoryIndex.put(item.category.id, item);
+			queue.addAll(item.childs);
+		}
+
+		for (var p : providers) {
+			var catID = p.categoryID();
+			if (catID == null) {
+				roots.add(p);
+				continue;
+			}
+			var list = providersByCategory.get(catID);
+			if (list == null) {
+				list = new ArrayList<>();
+				providersByCategory.put(catID, list);
+			}
+			list.add(p);
+		}
+		return roots.toArray();
 	}
 
 	@Override
 	public Object[] getChildren(Object elem) {
 		if (!(elem instanceof Item item))
 			return empty;
-		if (item.isProvider())
-			return ChildItem
-				.allOf(item.asProvider(), result)
-				.toArray();
+
+		if (item.isProvider()) {
+			var provider = item.asProvider();
+			var rows = childRows.get(provider.index);
+			if (rows == null) {
+				rows = ChildItem.allOf(provider, result).toArray();
+				childRows.put(provider.index, rows);
+			}
+			return rows;
+		}
+
 		if (!item.isCategory() || providers == null)
 			return empty;
 		var catItem = item.asCategory();
-		var providers = this.providers.stream()
-			.filter(p -> p.categoryID() != null
-				&& p.categoryID() == catItem.category.id);
-		return Stream.concat(catItem.childs.stream(), providers).toArray();
+		long catID = catItem.category.id;
+		var rows = categoryRows.get(catID);
+		if (rows == null) {
+			var list = new ArrayList<Object>(catItem.childs);
+			var providers = providersByCategory.get(catID);
+			if (providers != null) {
+				list.addAll(providers);
+			}
+			rows = list.toArray();
+			categoryRows.put(catID, rows);
+		}
+		return rows;
 	}
 
 	@Override
@@ -41,6 +41,7 @@ import org.openlca.util.Strings;
  */
 class PinBoard {
 
+	private final SimulationShards shards;
 	private final Simulator simulator;
 
 	private Text filter;
@@ -48,8 +49,9 @@ class PinBoard {
 	private TechFlow resultPin;
 	Consumer<TechFlow> onResultPinChange;
 
-	PinBoard(Simulator simulator) {
-		this.simulator = simulator;
+	PinBoard(SimulationShards shards) {
+		this.shards = shards;
+		this.simulator = shards.main();
 	}
 
 	void create(FormToolkit tk, Composite body) {
@@ -121,7 +123,7 @@ class PinBoard {
 			return;
 		boolean pinned = simulator.pinnedProducts.contains(pp);
 		if (pinned) {
-			simulator.pinnedProducts.remove(pp);
+			shards.unpin(pp);
 			if (Objects.equals(pp, resultPin)) {
 				resultPin = null;
 				if (onResultPinChange != null) {
@@ -129,7 +131,7 @@ class PinBoard {
 				}
 			}
 		} else {
-			simulator.pinnedProducts.add(pp);
+			shards.pin(pp);
 		}
 		table.setInput(selectInput());
 	}
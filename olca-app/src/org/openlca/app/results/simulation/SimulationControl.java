@@ -18,25 +18,29 @@ class SimulationControl {
 	private final SimulationPage page;
 	private final SimulationEditor editor;
 
-	public SimulationControl(Button button, SimulationEditor editor,
-			SimulationPage page) {
+	public SimulationControl(Button button, Button parallelCheck,
+			SimulationEditor editor, SimulationPage page) {
 		this.page = page;
 		this.editor = editor;
 		monitor = new SimulationMonitor();
 		Controls.onSelect(button, (e) -> {
 			if (!monitor.isRunning()) {
 				button.setText(M.Cancel);
-				startProgress();
+				int workers = parallelCheck.getSelection()
+						? Runtime.getRuntime().availableProcessors()
+						: 1;
+				parallelCheck.setEnabled(false);
+				startProgress(workers);
 			} else {
 				monitor.setCanceled(true);
 			}
 		});
 	}
 
-	private void startProgress() {
+	private void startProgress(int workers) {
 		try {
 			var display = Display.getCurrent();
-			var progress = new SimulationProgress(display, editor, page);
+			var progress = new SimulationProgress(display, editor, page, workers);
 			ModalContext.run(progress, true, monitor, display);
 		} catch (Exception e) {
 			log.error("Could not start simulation progress", e);
@@ -26,6 +26,7 @@ public class SimulationEditor extends SimpleFormEditor {
 
 	CalculationSetup setup;
 	Simulator simulator;
+	SimulationShards shards;
 
 	/**
 	 * Initializes the Monte Carlo simulation of a product system and opens the
@@ -54,6 +55,7 @@ public class SimulationEditor extends SimpleFormEditor {
 		setup = Cache.getAppCache().remove(input.setupKey, CalculationSetup.class);
 		setPartName(Strings.cut(Labels.name(setup.target()), 75));
 		simulator = Cache.getAppCache().remove(input.solverKey, Simulator.class);
+		shards = new SimulationShards(simulator);
 	}
 
 	@Override
@@ -7,8 +7,8 @@ import org.openlca.app.components.FileChooser;
 import org.openlca.app.db.Cache;
 import org.openlca.app.rcp.images.Images;
 import org.openlca.app.util.FileType;
+import org.openlca.app.util.MsgBox;
 import org.openlca.core.model.CalculationSetup;
-import org.openlca.core.results.SimulationResult;
 import org.openlca.io.xls.results.SimulationResultExport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,20 +16,27 @@ import org.slf4j.LoggerFactory;
 class SimulationExportAction extends Action {
 
 	private Logger log = LoggerFactory.getLogger(getClass());
-	private SimulationResult result;
+	private SimulationShards shards;
 	private CalculationSetup setup;
 
-	public SimulationExportAction(SimulationResult result,
+	public SimulationExportAction(SimulationShards shards,
 			CalculationSetup setup) {
 		setId("SimulationResultExport");
 		setToolTipText(M.ExportResultsToExcel);
 		setImageDescriptor(Images.descriptor(FileType.EXCEL));
-		this.result = result;
+		this.shards = shards;
 		this.setup = setup;
 	}
 
 	@Override
 	public void run() {
+		// the Excel export currently only supports the result of a single
+		// simulator
+		if (shards.size() > 1) {
+			MsgBox.info(M.ExportResultsToExcel, M.ParallelSimulationExportInfo);
+			return;
+		}
+		var result = shards.main().getResult();
 		var file = FileChooser.forSavingFile(M.Export, "simulation_result.xlsx");
 		if (file == null)
 			return;
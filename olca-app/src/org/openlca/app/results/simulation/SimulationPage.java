@@ -22,7 +22,6 @@ import org.openlca.app.util.Numbers;
 import org.openlca.app.util.UI;
 import org.openlca.app.viewers.combo.AbstractComboViewer;
 import org.openlca.app.viewers.combo.ImpactCategoryViewer;
-import org.openlca.core.math.Simulator;
 import org.openlca.core.matrix.index.TechFlow;
 import org.openlca.core.model.Flow;
 import org.openlca.core.model.Unit;
@@ -37,7 +36,6 @@ class SimulationPage extends FormPage {
 	private int resultType = FLOW;
 
 	private final SimulationEditor editor;
-	private final Simulator simulator;
 	private final SimulationResult result;
 	private final ResultItemOrder items;
 
@@ -56,7 +54,6 @@ class SimulationPage extends FormPage {
 	public SimulationPage(SimulationEditor editor) {
 		super(editor, "SimulationPage", M.MonteCarloSimulation);
 		this.editor = editor;
-		this.simulator = editor.simulator;
 		this.result = editor.simulator.getResult();
 		this.items = ResultItemOrder.of(result);
 		Sort.sort(this.items);
@@ -71,7 +68,7 @@ class SimulationPage extends FormPage {
 		Composite body = UI.body(form, tk);
 		createSettingsSection(tk, body);
 
-		PinBoard pinBoard = new PinBoard(simulator);
+		PinBoard pinBoard = new PinBoard(editor.shards);
 		pinBoard.create(tk, body);
 		pinBoard.onResultPinChange = (pp) -> {
 			this.resultPin = pp;
@@ -115,14 +112,18 @@ class SimulationPage extends FormPage {
 
 	private void createProgressSection(FormToolkit toolkit, Composite body) {
 		progressSection = UI.section(body, toolkit, M.Progress);
-		Composite composite = UI.sectionClient(progressSection, toolkit);
+		Composite composite = UI.sectionClient(progressSection, toolkit, 3);
 		progressBar = new ProgressBar(composite, SWT.SMOOTH);
 		progressBar.setMaximum(editor.setup.simulationRuns().orElse(1));
 		UI.gridData(progressBar, false, false).widthHint = 470;
 		Button progressButton = toolkit.createButton(composite,
 			M.Start, SWT.NONE);
 		UI.gridData(progressButton, false, false).widthHint = 70;
-		new SimulationControl(progressButton, editor, this);
+		Button parallelCheck = toolkit.createButton(composite,
+			M.RunInParallel, SWT.CHECK);
+		parallelCheck.setEnabled(
+			Runtime.getRuntime().availableProcessors() > 1);
+		new SimulationControl(progressButton, parallelCheck, editor, this);
 	}
 
 	private void createResultSection(FormToolkit tk, Composite body) {
@@ -130,7 +131,7 @@ class SimulationPage extends FormPage {
 			return;
 		Section section = UI.section(body, tk, M.Results);
 		SimulationExportAction exportAction = new SimulationExportAction(
-			result, editor.setup);
+			editor.shards, editor.setup);
 		Actions.bind(section, exportAction);
 		Composite comp = UI.sectionClient(section, tk);
 		initFlowCheckViewer(tk, comp);
@@ -172,28 +173,30 @@ class SimulationPage extends FormPage {
 			if (flow == null)
 				return;
 			double[] vals = resultPin != null
-				? result.getAllUpstream(resultPin, flow)
-				: result.getAll(flow);
+				? editor.shards.getAllUpstream(resultPin, flow)
+				: editor.shards.getAll(flow);
 			statisticsCanvas.setValues(vals);
 		} else {
 			ImpactDescriptor cat = impactViewer.getSelected();
 			if (cat == null)
 				return;
 			double[] vals = resultPin != null
-				? result.getAllUpstream(resultPin, cat)
-				: result.getAll(cat);
+				? editor.shards.getAllUpstream(resultPin, cat)
+				: editor.shards.getAll(cat);
 			statisticsCanvas.setValues(vals);
 		}
 	}
 
-	void updateProgress() {
-		if (result == null)
+	void updateProgress(int finishedRuns) {
+		if (result == null || form.isDisposed())
 			return;
 		updateSelection();
-		progressBar.setSelection(progressBar.getSelection() + 1);
+		progressBar.setSelection(finishedRuns);
 	}
 
 	void progressDone() {
+		if (form.isDisposed())
+			return;
 		progressSection.dispose();
 		form.reflow(true);
 	}
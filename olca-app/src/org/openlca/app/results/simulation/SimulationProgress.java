@@ -1,29 +1,42 @@
 package org.openlca.app.results.simulation;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jface.operation.IRunnableWithProgress;
 import org.eclipse.swt.widgets.Display;
 import org.openlca.app.M;
 import org.openlca.core.math.Simulator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The progress that runs the simulations. This should not be executed in the
- * UI-thread.
+ * UI-thread. The runs are distributed over the shards of the simulation where
+ * each shard runs in its own thread. The UI is updated with a fixed refresh
+ * rate and not after every run.
  */
 class SimulationProgress implements IRunnableWithProgress {
 
+	/** The refresh rate of the UI in milliseconds. */
+	private static final int REFRESH_RATE = 250;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
 	private final Display display;
 	private final int numberOfRuns;
-	private final Simulator solver;
+	private final int workers;
+	private final SimulationEditor editor;
 	private final SimulationPage page;
 
 	public SimulationProgress(Display display, SimulationEditor editor,
-			SimulationPage page) {
+			SimulationPage page, int workers) {
 		this.display = display;
-		this.solver = editor.simulator;
+		this.editor = editor;
 		this.numberOfRuns = editor.setup.simulationRuns().orElse(1);
+		this.workers = Math.max(1, Math.min(workers, numberOfRuns));
 		this.page = page;
 	}
 
@@ -31,19 +44,50 @@ class SimulationProgress implements IRunnableWithProgress {
 	public void run(IProgressMonitor monitor)
 			throws InvocationTargetException, InterruptedException {
 		monitor.beginTask(M.MonteCarloSimulationDots, numberOfRuns);
-		for (int i = 0; i < numberOfRuns; i++) {
-			if (monitor.isCanceled()) {
-				display.asyncExec(page::progressDone);
-				break;
-			}
-			var result = solver.nextRun();
-			if (result != null) {
-				result.dispose();
-			}
-			display.asyncExec(page::updateProgress);
-			Thread.sleep(10);
+		var shards = editor.shards;
+		try {
+			shards.grow(editor.setup, workers);
+		} catch (Exception e) {
+			log.error("failed to initialize simulation shards", e);
+		}
+
+		var next = new AtomicInteger(0);
+		var finished = new AtomicInteger(0);
+		var pool = Executors.newFixedThreadPool(shards.size());
+		for (var shard : shards.all()) {
+			pool.execute(() -> runShard(shard, monitor, next, finished));
+		}
+		pool.shutdown();
+
+		int reported = 0;
+		while (!pool.awaitTermination(REFRESH_RATE, TimeUnit.MILLISECONDS)) {
+			reported = report(finished.get(), reported);
 		}
+		report(finished.get(), reported);
 		monitor.done();
 		display.asyncExec(page::progressDone);
 	}
+
+	private void runShard(Simulator shard, IProgressMonitor monitor,
+			AtomicInteger next, AtomicInteger finished) {
+		while (!monitor.isCanceled() && next.getAndIncrement() < numberOfRuns) {
+			try {
+				var result = shard.nextRun();
+				if (result != null) {
+					result.dispose();
+				}
+				finished.incrementAndGet();
+			} catch (Exception e) {
+				log.error("simulation run failed", e);
+				return;
+			}
+		}
+	}
+
+	private int report(int finished, int reported) {
+		if (finished == reported)
+			return reported;
+		display.asyncExec(() -> page.updateProgress(finished));
+		return finished;
+	}
 }
@@ -0,0 +1,120 @@
+package org.openlca.app.results.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import org.openlca.app.App;
+import org.openlca.app.db.Database;
+import org.openlca.core.math.Simulator;
+import org.openlca.core.matrix.index.EnviFlow;
+import org.openlca.core.matrix.index.TechFlow;
+import org.openlca.core.model.CalculationSetup;
+import org.openlca.core.model.descriptors.ImpactDescriptor;
+import org.openlca.core.results.SimulationResult;
+
+/**
+ * A simulation that is split into shards which can run in parallel. Each
+ * shard is a separate simulator with its own solver and sampled matrices. The
+ * first shard is always the simulator of the editor; additional shards are
+ * created when a parallel simulation is started. The results of the shards
+ * are combined when they are read, in the order of the shards.
+ */
+class SimulationShards {
+
+	private final List<Simulator> shards = new CopyOnWriteArrayList<>();
+
+	SimulationShards(Simulator main) {
+		shards.add(main);
+	}
+
+	Simulator main() {
+		return shards.get(0);
+	}
+
+	List<Simulator> all() {
+		return shards;
+	}
+
+	int size() {
+		return shards.size();
+	}
+
+	/**
+	 * Creates additional shards so that there are (at least) the given number
+	 * of shards and synchronizes the pinned products of all shards with the
+	 * main simulator. This is called before each simulation is started. It is
+	 * expensive and should not be called in the UI thread.
+	 */
+	void grow(CalculationSetup setup, int count) {
+		while (shards.size() < count) {
+			var sim = Simulator.create(setup, Database.get())
+					.withSolver(App.getSolver());
+			shards.add(sim);
+		}
+		syncPins();
+	}
+
+	/**
+	 * Pins the given product in all shards, so that its upstream results are
+	 * collected from the next run of each shard on.
+	 */
+	void pin(TechFlow product) {
+		for (var shard : shards) {
+			shard.pinnedProducts.add(product);
+		}
+	}
+
+	void unpin(TechFlow product) {
+		for (var shard : shards) {
+			shard.pinnedProducts.remove(product);
+		}
+	}
+
+	private void syncPins() {
+		var pins = main().pinnedProducts;
+		for (int i = 1; i < shards.size(); i++) {
+			var shard = shards.get(i);
+			shard.pinnedProducts.retainAll(pins);
+			shard.pinnedProducts.addAll(pins);
+		}
+	}
+
+	double[] getAll(EnviFlow flow) {
+		return collect(r -> r.getAll(flow));
+	}
+
+	double[] getAll(ImpactDescriptor impact) {
+		return collect(r -> r.getAll(impact));
+	}
+
+	double[] getAllUpstream(TechFlow pin, EnviFlow flow) {
+		return collect(r -> r.getAllUpstream(pin, flow));
+	}
+
+	double[] getAllUpstream(TechFlow pin, ImpactDescriptor impact) {
+		return collect(r -> r.getAllUpstream(pin, impact));
+	}
+
+	private double[] collect(Function<SimulationResult, double[]> fn) {
+		if (shards.size() == 1)
+			return fn.apply(main().getResult());
+		var parts = new ArrayList<double[]>(shards.size());
+		int length = 0;
+		for (var shard : shards) {
+			var part = fn.apply(shard.getResult());
+			if (part == null)
+				continue;
+			parts.add(part);
+			length += part.length;
+		}
+		var values = new double[length];
+		int offset = 0;
+		for (var part : parts) {
+			System.arraycopy(part, 0, values, offset, part.length);
+			offset += part.length;
+		}
+		return values;
+	}
+}
@@ -0,0 +1,127 @@
+package org.openlca.app.results.slca;
+
+import java.util.stream.IntStream;
+
+import org.openlca.core.model.RiskLevel;
+
+/**
+ * Scales the social matrix data with the scaling vector and aggregates the
+ * total activity values, the activity values per risk level, and the raw
+ * values weighted by the activity values in a single pass over the matrix
+ * columns. For larger systems, the columns are split into chunks that are
+ * processed in parallel; the partial sums of the chunks are then added in
+ * the order of the chunks so that the results are the same in every run.
+ */
+class SocialAggregation {
+
+	/** The minimum number of columns of a chunk. */
+	private static final int MIN_CHUNK = 2_000;
+
+	private final SocialMatrix matrix;
+	private final double[] s;
+
+	/** indicator index * levels + level code -> index in the risk index */
+	private final int[] riskPositions;
+	private final int levels;
+	private final int riskSize;
+
+	final double[] totalActivityValues;
+	final double[] totalRiskActivityValues;
+	final double[] directActivityValues;
+	final double[] weightedRawValues;
+
+	SocialAggregation(
+			SocialMatrixData data, SocialRiskIndex riskIndex, double[] s
+	) {
+		this.matrix = data.matrix();
+		this.s = s;
+
+		var socialIndex = data.socialIndex();
+		var riskLevels = RiskLevel.values();
+		levels = riskLevels.length;
+		riskSize = riskIndex.size();
+		riskPositions = new int[socialIndex.size() * levels];
+		for (int i = 0; i < socialIndex.size(); i++) {
+			var indicator = socialIndex.at(i);
+			for (var level : riskLevels) {
+				riskPositions[i * levels + level.ordinal()] =
+						riskIndex.of(indicator, level);
+			}
+		}
+
+		totalActivityValues = new double[matrix.rows];
+		totalRiskActivityValues = new double[riskSize];
+		directActivityValues = new double[matrix.size()];
+		weightedRawValues = new double[matrix.rows];
+	}
+
+	void run() {
+		int columns = Math.min(matrix.columns, s.length);
+		int chunks = Math.max(1, Math.min(
+				Runtime.getRuntime().availableProcessors(),
+				columns / MIN_CHUNK));
+		if (chunks == 1) {
+			var part = new Partial();
+			part.aggregate(0, columns);
+			part.addTo(this);
+			return;
+		}
+
+		int chunkSize = (columns + chunks - 1) / chunks;
+		var parts = new Partial[chunks];
+		IntStream.range(0, chunks).parallel().forEach(c -> {
+			var part = new Partial();
+			int start = c * chunkSize;
+			int end = Math.min(columns, start + chunkSize);
+			part.aggregate(start, end);
+			parts[c] = part;
+		});
+		for (var part : parts) {
+			part.addTo(this);
+		}
+	}
+
+	private class Partial {
+
+		final double[] totals = new double[matrix.rows];
+		final double[] riskTotals = new double[riskSize];
+		final double[] weightedRaws = new double[matrix.rows];
+
+		void aggregate(int startColumn, int endColumn) {
+			for (int j = startColumn; j < endColumn; j++) {
+				double sj = s[j];
+				for (int k = matrix.columnStart(j); k < matrix.columnEnd(j); k++) {
+					int i = matrix.rowAt(k);
+					double v = matrix.activityAt(k) * sj;
+
+					// each entry is written by exactly one chunk
+					directActivityValues[k] = v;
+					totals[i] += v;
+
+					byte level = matrix.levelCodeAt(k);
+					if (level >= 0 && level < levels) {
+						int pos = riskPositions[i * levels + level];
+						if (pos >= 0) {
+							riskTotals[pos] += v;
+						}
+					}
+
+					double raw = matrix.rawAt(k);
+					if (!Double.isNaN(raw)) {
+						weightedRaws[i] += raw * v;
+					}
+				}
+			}
+		}
+
+		void addTo(SocialAggregation agg) {
+			for (int i = 0; i < totals.length; i++) {
+				agg.totalActivityValues[i] += totals[i];
+				agg.weightedRawValues[i] += weightedRaws[i];
+			}
+			for (int i = 0; i < riskTotals.length; i++) {
+				agg.totalRiskActivityValues[i] += riskTotals[i];
+			}
+		}
+	}
+}
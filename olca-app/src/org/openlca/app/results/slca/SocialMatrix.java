@@ -0,0 +1,210 @@
+package org.openlca.app.results.slca;
+
+import java.util.Arrays;
+
+import org.openlca.core.model.RiskLevel;
+
+import gnu.trove.list.array.TByteArrayList;
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * Stores the social matrix data in a compressed sparse column (CSC) format.
+ * The rows are the social indicators and the columns the technosphere flows
+ * (providers) of a system. Each stored entry has an activity value, an
+ * optional raw value ({@code NaN} when missing), and an optional risk level
+ * that is stored as byte code ({@code -1} when missing). In addition to the
+ * column pointers, the entries are also indexed by row, so that the entries
+ * of an indicator can be iterated without scanning all columns.
+ */
+class SocialMatrix {
+
+	private static final RiskLevel[] LEVELS = RiskLevel.values();
+
+	final int rows;
+	final int columns;
+
+	/** The entries of column j are in the range [pointers[j], pointers[j+1]). */
+	private final int[] columnPointers;
+	private final int[] rowIndices;
+	private final double[] activities;
+	private final double[] raws;
+	private final byte[] levels;
+
+	/**
+	 * The entries of row i are in the range [rowPointers[i], rowPointers[i+1])
+	 * of the row view; the row view stores the entry positions and their
+	 * columns.
+	 */
+	private final int[] rowPointers;
+	private final int[] rowEntries;
+	private final int[] rowColumns;
+
+	private SocialMatrix(int rows, int columns, int[] columnPointers,
+			int[] rowIndices, double[] activities, double[] raws, byte[] levels) {
+		this.rows = rows;
+		this.columns = columns;
+		this.columnPointers = columnPointers;
+		this.rowIndices = rowIndices;
+		this.activities = activities;
+		this.raws = raws;
+		this.levels = levels;
+
+		// build the row view
+		rowPointers = new int[rows + 1];
+		for (int row : rowIndices) {
+			rowPointers[row + 1]++;
+		}
+		for (int i = 0; i < rows; i++) {
+			rowPointers[i + 1] += rowPointers[i];
+		}
+		rowEntries = new int[rowIndices.length];
+		rowColumns = new int[rowIndices.length];
+		var next = Arrays.copyOf(rowPointers, rows);
+		for (int j = 0; j < columns; j++) {
+			for (int k = columnPointers[j]; k < columnPointers[j + 1]; k++) {
+				int p = next[rowIndices[k]]++;
+				rowEntries[p] = k;
+				rowColumns[p] = j;
+			}
+		}
+	}
+
+	/** Returns the number of stored entries. */
+	int size() {
+		return rowIndices.length;
+	}
+
+	int columnStart(int column) {
+		return columnPointers[column];
+	}
+
+	int columnEnd(int column) {
+		return columnPointers[column + 1];
+	}
+
+	int rowAt(int entry) {
+		return rowIndices[entry];
+	}
+
+	double activityAt(int entry) {
+		return activities[entry];
+	}
+
+	/** Returns the raw value of the entry or {@code NaN} if it has none. */
+	double rawAt(int entry) {
+		return raws[entry];
+	}
+
+	/** Returns the risk level code of the entry or -1 if it has none. */
+	byte levelCodeAt(int entry) {
+		return levels[entry];
+	}
+
+	static RiskLevel levelOf(byte code) {
+		return code >= 0 && code < LEVELS.length
+				? LEVELS[code]
+				: null;
+	}
+
+	/**
+	 * Returns the position of the entry (i, j) or -1 if there is no such
+	 * entry.
+	 */
+	int entryOf(int row, int column) {
+		if (row < 0 || row >= rows || column < 0 || column >= columns)
+			return -1;
+		int k = Arrays.binarySearch(rowIndices,
+				columnPointers[column], columnPointers[column + 1], row);
+		return k >= 0 ? k : -1;
+	}
+
+	/**
+	 * Calls the given function with the column index and entry position of
+	 * each entry in the given row.
+	 */
+	void eachInRow(int row, EntryConsumer fn) {
+		if (row < 0 || row >= rows)
+			return;
+		for (int p = rowPointers[row]; p < rowPointers[row + 1]; p++) {
+			fn.accept(rowColumns[p], rowEntries[p]);
+		}
+	}
+
+	@FunctionalInterface
+	interface EntryConsumer {
+		void accept(int column, int entry);
+	}
+
+	static class Builder {
+
+		private final int rows;
+		private final int columns;
+		private final TIntArrayList is = new TIntArrayList();
+		private final TIntArrayList js = new TIntArrayList();
+		private final TDoubleArrayList as = new TDoubleArrayList();
+		private final TDoubleArrayList rs = new TDoubleArrayList();
+		private final TByteArrayList ls = new TByteArrayList();
+
+		Builder(int rows, int columns) {
+			this.rows = rows;
+			this.columns = columns;
+		}
+
+		/**
+		 * Adds an entry. If an entry with the same row and column is added
+		 * multiple times, the last one is taken.
+		 */
+		void add(int row, int column, double activity, double raw,
+				RiskLevel level) {
+			is.add(row);
+			js.add(column);
+			as.add(activity);
+			rs.add(raw);
+			ls.add(level != null ? (byte) level.ordinal() : -1);
+		}
+
+		SocialMatrix build() {
+			int n = is.size();
+
+			// sort the entries by column and row; for duplicates, the last
+			// added entry comes last as the positions are part of the key
+			var keys = new long[n];
+			for (int k = 0; k < n; k++) {
+				keys[k] = ((long) js.get(k) * rows + is.get(k)) * n + k;
+			}
+			Arrays.sort(keys);
+
+			var pointers = new int[columns + 1];
+			var rowIdx = new TIntArrayList(n);
+			var acts = new TDoubleArrayList(n);
+			var raws = new TDoubleArrayList(n);
+			var levels = new TByteArrayList(n);
+			long lastCell = -1;
+			for (int p = 0; p < n; p++) {
+				int k = (int) (keys[p] % n);
+				long cell = keys[p] / n;
+				if (cell == lastCell) {
+					// duplicate: overwrite the previous entry
+					int last = rowIdx.size() - 1;
+					acts.set(last, as.get(k));
+					raws.set(last, rs.get(k));
+					levels.set(last, ls.get(k));
+					continue;
+				}
+				lastCell = cell;
+				pointers[js.get(k) + 1]++;
+				rowIdx.add(is.get(k));
+				acts.add(as.get(k));
+				raws.add(rs.get(k));
+				levels.add(ls.get(k));
+			}
+			for (int j = 0; j < columns; j++) {
+				pointers[j + 1] += pointers[j];
+			}
+			return new SocialMatrix(rows, columns, pointers,
+					rowIdx.toArray(), acts.toArray(), raws.toArray(),
+					levels.toArray());
+		}
+	}
+}
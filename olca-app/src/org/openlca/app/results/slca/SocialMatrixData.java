@@ -2,8 +2,6 @@ package org.openlca.app.results.slca;
 
 import org.openlca.core.database.IDatabase;
 import org.openlca.core.database.NativeSql;
-import org.openlca.core.matrix.format.Matrix;
-import org.openlca.core.matrix.format.MatrixBuilder;
 import org.openlca.core.matrix.index.TechIndex;
 import org.openlca.core.model.RiskLevel;
 import org.openlca.util.Strings;
@@ -13,9 +11,7 @@ import java.util.Optional;
 record SocialMatrixData(
 		TechIndex techIndex,
 		SocialIndex socialIndex,
-		Matrix activityData,
-		Matrix rawData,
-		SocialLevelMatrix levelData
+		SocialMatrix matrix
 ) {
 
 	static Optional<SocialMatrixData> fetch(
@@ -37,20 +33,15 @@ record SocialMatrixData(
 		private final TechIndex techIndex;
 		private final SocialIndex socialIndex;
 
-		private final MatrixBuilder activityData;
-		private final MatrixBuilder rawData;
-		private final SocialLevelMatrix levelData;
+		private final SocialMatrix.Builder matrix;
 
 		Builder(IDatabase db, TechIndex techIndex, SocialIndex socialIndex) {
 			this.db = db;
 			this.techIndex = techIndex;
 			this.socialIndex = socialIndex;
 
-			activityData = new MatrixBuilder();
-			activityData.minSize(socialIndex.size(), techIndex.size());
-			rawData = new MatrixBuilder();
-			rawData.minSize(socialIndex.size(), techIndex.size());
-			levelData = new SocialLevelMatrix();
+			matrix = new SocialMatrix.Builder(
+					socialIndex.size(), techIndex.size());
 		}
 
 		SocialMatrixData build() {
@@ -73,25 +64,12 @@ record SocialMatrixData(
 				var i = socialIndex.of(indicator);
 
 				var activityValue = r.getDouble(3);
-				var rawValue = r.getString(4);
+				var rawValue = rawValueOf(r.getString(4));
 				var riskLevel = riskLevelOf(r.getString(5));
 
 				for (var techFlow : techFlows) {
-
 					int j = techIndex.of(techFlow);
-					activityData.set(i, j, activityValue);
-
-					if (Strings.notEmpty(rawValue)) {
-						try {
-							double v = Double.parseDouble(rawValue);
-							rawData.set(i, j, v);
-						} catch (Exception ignored) {
-						}
-					}
-
-					if (riskLevel != null) {
-						levelData.put(indicator, techFlow, riskLevel);
-					}
+					matrix.add(i, j, activityValue, rawValue, riskLevel);
 				}
 				return true;
 			});
@@ -99,12 +77,20 @@ record SocialMatrixData(
 			return new SocialMatrixData(
 					techIndex,
 					socialIndex,
-					activityData.finish(),
-					rawData.finish(),
-					levelData
+					matrix.build()
 			);
 		}
 
+		private double rawValueOf(String s) {
+			if (Strings.nullOrEmpty(s))
+				return Double.NaN;
+			try {
+				return Double.parseDouble(s);
+			} catch (Exception e) {
+				return Double.NaN;
+			}
+		}
+
 		private RiskLevel riskLevelOf(String name) {
 			try {
 				return RiskLevel.valueOf(name);
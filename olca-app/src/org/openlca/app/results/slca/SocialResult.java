@@ -2,15 +2,14 @@ package org.openlca.app.results.slca;
 
 import org.openlca.core.database.IDatabase;
 import org.openlca.core.database.SocialIndicatorDao;
-import org.openlca.core.matrix.format.MatrixReader;
 import org.openlca.core.matrix.index.TechFlow;
 import org.openlca.core.matrix.index.TechIndex;
-import org.openlca.core.matrix.solvers.MatrixSolver;
 import org.openlca.core.model.RiskLevel;
 import org.openlca.core.model.descriptors.SocialIndicatorDescriptor;
 import org.openlca.core.results.providers.ResultProvider;
 
 import java.util.Optional;
+import java.util.function.ObjDoubleConsumer;
 
 public class SocialResult {
 
@@ -18,7 +17,7 @@ public class SocialResult {
 	private final SocialRiskIndex riskIndex;
 	private final double[] totalActivityValues;
 	private final double[] totalRiskActivityValues;
-	private final MatrixReader directActivityValues;
+	private final double[] directActivityValues;
 	private final double[] weightedRawValues;
 
 	private SocialResult(
@@ -26,7 +25,7 @@ public class SocialResult {
 			SocialRiskIndex riskIndex,
 			double[] totalActivityValues,
 			double[] totalRiskActivityValues,
-			MatrixReader directActivityValues,
+			double[] directActivityValues,
 			double[] weightedRawValues
 	) {
 		this.data = data;
@@ -55,34 +54,15 @@ public class SocialResult {
 		if (data == null)
 			return Optional.empty();
 
-		// scale the activity values
-		var solver = MatrixSolver.get();
-		var s = p.scalingVector();
-		var totalActivityValues = solver.multiply(data.activityData(), s);
-		var directActivityValues = data.activityData().copy();
-		directActivityValues.scaleColumns(s);
-
-		// aggregate the activity values by risk-level
+		// scale and aggregate the activity values in a single pass over the
+		// columns of the matrix
 		var riskIndex = SocialRiskIndex.of(indicators);
-		var totalRiskActivityValues = new double[riskIndex.size()];
-		directActivityValues.iterate((i, j, v) -> {
-			var indicator = socialIndex.at(i);
-			var techFlow = data.techIndex().at(j);
-			var level = data.levelData().get(indicator, techFlow);
-			if (level == null)
-				return;
-			int k = riskIndex.of(indicator, level);
-			if (k < 0)
-				return;
-			totalRiskActivityValues[k] += v;
-		});
+		var agg = new SocialAggregation(data, riskIndex, p.scalingVector());
+		agg.run();
 
 		// calculate the weighted raw data
-		var weightedRawValues = new double[socialIndex.size()];
-		data.rawData().iterate((i, j, r) -> {
-			double av = directActivityValues.get(i, j);
-			weightedRawValues[i] += (r * av);
-		});
+		var totalActivityValues = agg.totalActivityValues;
+		var weightedRawValues = agg.weightedRawValues;
 		for (int i = 0; i < weightedRawValues.length; i++) {
 			double tav = totalActivityValues[i];
 			if (tav == 0) {
@@ -96,8 +76,8 @@ public class SocialResult {
 				data,
 				riskIndex,
 				totalActivityValues,
-				totalRiskActivityValues,
-				directActivityValues,
+				agg.totalRiskActivityValues,
+				agg.directActivityValues,
 				weightedRawValues
 		);
 		return Optional.of(r);
@@ -130,29 +110,54 @@ public class SocialResult {
 	}
 
 	public double activityValueOf(SocialIndicatorDescriptor d, TechFlow techFlow) {
-		if (d == null || techFlow == null)
-			return 0;
-		int i = socialIndex().of(d);
-		int j = techIndex().of(techFlow);
-		return i >= 0 && j >= 0
-				? directActivityValues.get(i, j)
+		int k = entryOf(d, techFlow);
+		return k >= 0
+				? directActivityValues[k]
 				: 0;
 	}
 
+	/**
+	 * Calls the given function for each technosphere flow that has a direct
+	 * activity value for the given indicator. Only the stored entries of the
+	 * indicator are visited, which is much faster than querying the values of
+	 * all technosphere flows.
+	 */
+	public void eachActivityValueOf(
+			SocialIndicatorDescriptor d, ObjDoubleConsumer<TechFlow> fn
+	) {
+		if (d == null || fn == null)
+			return;
+		int i = socialIndex().of(d);
+		if (i < 0)
+			return;
+		var techIndex = techIndex();
+		data.matrix().eachInRow(i, (j, k) ->
+				fn.accept(techIndex.at(j), directActivityValues[k]));
+	}
+
 	public RiskLevel riskLevelOf(SocialIndicatorDescriptor d, TechFlow techFlow) {
-		return d != null || techFlow != null
-				? data.levelData().get(d, techFlow)
+		int k = entryOf(d, techFlow);
+		return k >= 0
+				? SocialMatrix.levelOf(data.matrix().levelCodeAt(k))
 				: null;
 	}
 
 	public double rawValueOf(SocialIndicatorDescriptor d, TechFlow techFlow) {
-		if (d == null || techFlow == null)
+		int k = entryOf(d, techFlow);
+		if (k < 0)
 			return 0;
+		double raw = data.matrix().rawAt(k);
+		return Double.isNaN(raw) ? 0 : raw;
+	}
+
+	private int entryOf(SocialIndicatorDescriptor d, TechFlow techFlow) {
+		if (d == null || techFlow == null)
+			return -1;
 		int i = socialIndex().of(d);
 		int j = techIndex().of(techFlow);
 		return i >= 0 && j >= 0
-				? data.rawData().get(i, j)
-				: 0;
+				? data.matrix().entryOf(i, j)
+				: -1;
 	}
 
 	public double rawValueOf(SocialIndicatorDescriptor d) {
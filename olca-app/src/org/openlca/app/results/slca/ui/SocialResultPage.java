@@ -4,6 +4,7 @@ import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.Locale;
 
+import org.eclipse.jface.dialogs.ProgressMonitorDialog;
 import org.eclipse.jface.viewers.BaseLabelProvider;
 import org.eclipse.jface.viewers.ITableColorProvider;
 import org.eclipse.jface.viewers.ITableLabelProvider;
@@ -24,6 +25,7 @@ import org.openlca.app.results.slca.ui.TreeModel.Node;
 import org.openlca.app.results.slca.ui.TreeModel.TechFlowNode;
 import org.openlca.app.util.Actions;
 import org.openlca.app.util.Colors;
+import org.openlca.app.util.ErrorReporter;
 import org.openlca.app.util.FileType;
 import org.openlca.app.util.Labels;
 import org.openlca.app.util.UI;
@@ -114,7 +116,11 @@ public class SocialResultPage extends FormPage {
 						if (file == null)
 							return;
 						var export = new SocialTreeExport(file, mTree);
-						App.runWithProgress(M.ExportingSocialAssessmentTreeDots, export);
+						try {
+							new ProgressMonitorDialog(UI.shell()).run(true, true, export);
+						} catch (Exception e) {
+							ErrorReporter.on("Social assessment export failed", e);
+						}
 					}
 				});
 
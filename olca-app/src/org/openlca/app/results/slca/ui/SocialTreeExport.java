@@ -3,60 +3,116 @@ package org.openlca.app.results.slca.ui;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Consumer;
 
+import org.apache.commons.csv.CSVFormat;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.openlca.app.results.slca.SocialRiskValue;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jface.operation.IRunnableWithProgress;
+import org.openlca.app.M;
 import org.openlca.core.model.RiskLevel;
 import org.openlca.io.xls.Excel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-class SocialTreeExport implements Runnable {
+/**
+ * Writes the social assessment tree to an Excel file with a streaming
+ * workbook, or to a flat CSV file when the file has a {@code .csv} extension.
+ * See also the upstream tree export of the contribution results.
+ */
+class SocialTreeExport implements IRunnableWithProgress {
+
+	/**
+	 * The maximum number of rows of a streaming sheet that are kept in memory.
+	 */
+	private static final int ROW_WINDOW = 500;
 
 	private final File file;
 	private final TreeModel tree;
-	private Sheet sheet;
 
+	private IProgressMonitor monitor;
 	private int row;
+	private int maxRow;
 	private int maxColumn;
 
-	private final List<String> activityValues = new ArrayList<>();
-	private final List<String> rawValues = new ArrayList<>();
-	private final List<SocialRiskValue> socialRiskValues = new ArrayList<>();
-
 	SocialTreeExport(File file, TreeModel tree) {
 		this.file = file;
 		this.tree = tree;
 	}
 
 	@Override
-	public void run() {
+	public void run(IProgressMonitor monitor) {
 		Logger log = LoggerFactory.getLogger(getClass());
 		if (file == null || tree == null) {
 			log.error("invalid input, file or tree is null");
 			return;
 		}
+		this.monitor = monitor;
+		monitor.beginTask(M.ExportingSocialAssessmentTreeDots,
+				IProgressMonitor.UNKNOWN);
+		File tmp = null;
+		try {
+			// the export is written to a temporary file that replaces the
+			// target file when it is complete, so that a canceled export
+			// does not touch an existing file
+			tmp = File.createTempFile(
+					"olca-export", ".tmp", file.getAbsoluteFile().getParentFile());
+			if (file.getName().toLowerCase().endsWith(".csv")) {
+				writeCsv(tmp);
+			} else {
+				writeExcel(tmp);
+			}
+			if (!monitor.isCanceled()) {
+				Files.move(tmp.toPath(), file.toPath(),
+						StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (Exception e) {
+			log.error("Social assessment export failed", e);
+			throw new RuntimeException(e);
+		} finally {
+			if (tmp != null && tmp.exists()) {
+				tmp.delete();
+			}
+		}
+		monitor.done();
+	}
 
-		try (var wb = new XSSFWorkbook()) {
-			sheet = wb.createSheet("Social assessment");
+	private void writeExcel(File out) throws Exception {
+		// 1048575 is the maximum row number of an Excel sheet.
+		maxRow = 1048574;
+
+		// first, determine the number of columns of the tree
+		row = 1;
+		maxColumn = 0;
+		traverse(path -> {
+			row++;
+			maxColumn = Math.max(path.length, maxColumn);
+		});
+		if (monitor.isCanceled())
+			return;
 
-			var bold = Excel.createBoldStyle(wb);
-			Excel.cell(sheet, 0, 0, "Social assessment")
-					.ifPresent(c -> c.setCellStyle(bold));
+		var wb = new SXSSFWorkbook(ROW_WINDOW);
+		try {
+			var sheet = wb.createSheet("Social assessment");
 
-			// write the tree
-			row = 1;
-			var roots = tree.getElements(tree);
-			for (var root : roots) {
-				if (root instanceof TreeModel.Node n) {
-					traverse(new Path(n));
-				}
+			// set the column widths
+			for (int col = 0; col < maxColumn + 1; col++) {
+				sheet.setColumnWidth(col, 25 * 255);
+			}
+			sheet.setColumnWidth(maxColumn + 1, 20 * 255);
+			sheet.setColumnWidth(maxColumn + 2, 20 * 255);
+			for (int j = 0; j < RiskLevel.values().length; j++) {
+				sheet.setColumnWidth(maxColumn + j + 3, 10 * 255);
 			}
 
-			// write the result
+			var bold = Excel.createBoldStyle(wb);
+			Excel.cell(sheet, 0, 0, "Social assessment")
+					.ifPresent(c -> c.setCellStyle(bold));
 			Excel.cell(sheet, 1, maxColumn + 1, "Activity value")
 					.ifPresent(c -> c.setCellStyle(bold));
 			Excel.cell(sheet, 1, maxColumn + 2, "Raw value")
@@ -66,64 +122,98 @@ class SocialTreeExport implements Runnable {
 				Excel.cell(sheet, 1, maxColumn + j + 3, TreeGrid.headerOf(level))
 						.ifPresent(c -> c.setCellStyle(bold));
 			}
-			for (int i = 0; i < socialRiskValues.size(); i++) {
-				Excel.cell(sheet, i + 2, maxColumn + 1, activityValues.get(i));
-				Excel.cell(sheet, i + 2, maxColumn + 2, rawValues.get(i));
-				for (var level : RiskLevel.values()) {
-					var j = level.ordinal();
-					var share = socialRiskValues.get(i).getShare(level);
-					Excel.cell(sheet, i + 2, maxColumn + j + 3, share);
-				}
-			}
 
-			// set the column widths
-			for (int col = 0; col < maxColumn + 1; col++) {
-				sheet.setColumnWidth(col, 25 * 255);
-			}
-			sheet.setColumnWidth(maxColumn + 1, 20 * 255);
-			sheet.setColumnWidth(maxColumn + 2, 20 * 255);
-			for (int j = 0; j < RiskLevel.values().length; j++) {
-				sheet.setColumnWidth(maxColumn + j + 3, 10 * 255);
-			}
+			// write the tree
+			row = 1;
+			traverse(path -> write(sheet, path));
+			if (monitor.isCanceled())
+				return;
 
-			try (var fout = new FileOutputStream(file);
+			try (var fout = new FileOutputStream(out);
 					 var buff = new BufferedOutputStream(fout)) {
 				wb.write(buff);
 			}
-		} catch (Exception e) {
-			log.error("Social assessment export failed", e);
-			throw new RuntimeException(e);
+		} finally {
+			wb.dispose();
+			wb.close();
 		}
 	}
 
-	private void traverse(Path path) {
-		if (row >= 1048574) {
-			// 1048575 is the maximum row number of an
-			// Excel sheet.
-			return;
+	private void write(Sheet sheet, Path path) {
+		row++;
+		var node = path.node;
+		Excel.cell(sheet, row, path.length, node.name());
+		Excel.cell(sheet, row, maxColumn + 1, node.activityValue());
+		Excel.cell(sheet, row, maxColumn + 2, node.rawValue());
+		var riskValue = node.riskValue();
+		for (var level : RiskLevel.values()) {
+			var j = level.ordinal();
+			Excel.cell(sheet, row, maxColumn + j + 3, riskValue.getShare(level));
 		}
+	}
 
-		// write the node and expand the child nodes
-		var node = path.node;
-		write(path);
-		for (var child : tree.getChildren(node)) {
-			if (child instanceof TreeModel.Node n) {
-				traverse(path.append(n));
+	private void writeCsv(File out) throws Exception {
+		maxRow = Integer.MAX_VALUE;
+		row = 0;
+		try (var writer = Files.newBufferedWriter(
+				out.toPath(), StandardCharsets.UTF_8);
+				 var csv = CSVFormat.DEFAULT.print(writer)) {
+			var header = new ArrayList<Object>();
+			header.add("Level");
+			header.add("Name");
+			header.add("Activity value");
+			header.add("Raw value");
+			for (var level : RiskLevel.values()) {
+				header.add(TreeGrid.headerOf(level));
 			}
+			csv.printRecord(header);
+
+			traverse(path -> {
+				row++;
+				var node = path.node;
+				var record = new ArrayList<Object>();
+				record.add(path.length);
+				record.add(node.name());
+				record.add(node.activityValue());
+				record.add(node.rawValue());
+				var riskValue = node.riskValue();
+				for (var level : RiskLevel.values()) {
+					record.add(riskValue.getShare(level));
+				}
+				try {
+					csv.printRecord(record);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
 		}
 	}
 
-	private void write(Path path) {
-		row++;
+	private void traverse(Consumer<Path> fn) {
+		var roots = tree.getElements(tree);
+		for (var root : roots) {
+			if (root instanceof TreeModel.Node n) {
+				traverse(new Path(n), fn);
+			}
+		}
+	}
 
-		activityValues.add(path.node.activityValue());
-		rawValues.add(path.node.rawValue());
-		socialRiskValues.add(path.node.riskValue());
+	/**
+	 * Passes the paths of the nodes in depth-first order to the given
+	 * function, which is expected to increment the row counter.
+	 */
+	private void traverse(Path path, Consumer<Path> fn) {
+		if (row >= maxRow || monitor.isCanceled())
+			return;
 
-		int col = path.length;
-		maxColumn = Math.max(col, maxColumn);
+		// write the node and expand the child nodes
 		var node = path.node;
-		Excel.cell(sheet, row, col, node.name());
+		fn.accept(path);
+		for (var child : tree.getChildren(node)) {
+			if (child instanceof TreeModel.Node n) {
+				traverse(path.append(n), fn);
+			}
+		}
 	}
 
 	private static class Path {
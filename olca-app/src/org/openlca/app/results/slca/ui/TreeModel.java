@@ -256,22 +256,21 @@ class TreeModel implements ITreeContentProvider {
 			if (pav == 0)
 				return List.of();
 
-			double maxAv = 0;
+			var maxAv = new double[1];
 			var nodes = new ArrayList<TechFlowNode>();
-			for (var techFlow : parent.tree.result.techIndex()) {
-				var node = new TechFlowNode(parent, techFlow);
-				var av = Math.abs(node.activity());
-				maxAv = Math.max(av, maxAv);
+			parent.tree.result.eachActivityValueOf(parent.descriptor, (techFlow, v) -> {
+				var av = Math.abs(v);
+				maxAv[0] = Math.max(av, maxAv[0]);
 				// TODO: read the min-share from the tree config
 				var share = av / pav;
 				if (share >= 0.001) {
-					nodes.add(node);
+					nodes.add(new TechFlowNode(parent, techFlow));
 				}
-			}
+			});
 
-			if (maxAv > 0) {
+			if (maxAv[0] > 0) {
 				for (var n : nodes) {
-					n.activityShare = Math.abs(n.activity()) / maxAv;
+					n.activityShare = Math.abs(n.activity()) / maxAv[0];
 				}
 			}
 			return nodes;
@@ -1,10 +1,7 @@
 package org.openlca.app.search;
 
-import org.openlca.app.navigation.ModelTypeOrder;
 import org.openlca.app.util.Labels;
-import org.openlca.core.database.Daos;
 import org.openlca.core.database.IDatabase;
-import org.openlca.core.database.ParameterDao;
 import org.openlca.core.model.ModelType;
 import org.openlca.core.model.descriptors.Descriptor;
 import org.openlca.util.Strings;
@@ -12,9 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 class Search implements Runnable {
 
@@ -60,94 +55,24 @@ class Search implements Runnable {
 			return;
 
 		log.trace("run search with term {}", rawTerm);
-		var types = typeFilter == null
-				? ModelTypeOrder.getOrderedTypes()
-				: new ModelType[] { typeFilter };
-		var matches = new ArrayList<Match>();
-		for (var type : types) {
-			var all = type == ModelType.PARAMETER
-					? new ParameterDao(db).getGlobalDescriptors()
-					: Daos.root(db, type).getDescriptors();
-			for (var d : all) {
-				var match = Match.of(d, this);
-				if (!match.isEmpty()) {
-					matches.add(match);
-				}
-			}
-		}
-
-		matches.stream()
-				.sorted((m1, m2) -> {
+		var hits = SearchIndex.of(db).find(words, tags, typeFilter);
+		hits.stream()
+				.sorted((h1, h2) -> {
 					var c = Boolean.compare(
-							m1.descriptor.isFromLibrary(),
-							m2.descriptor.isFromLibrary());
+							h1.descriptor().isFromLibrary(),
+							h2.descriptor().isFromLibrary());
 					if (c != 0)
 						return c;
-					c = Double.compare(m2.factor, m1.factor);
+					c = Double.compare(h2.score(), h1.score());
 					if (c != 0)
 						return c;
 					return Strings.compare(
-							Labels.name(m1.descriptor),
-							Labels.name(m2.descriptor));
+							Labels.name(h1.descriptor()),
+							Labels.name(h2.descriptor()));
 				})
-				.map(Match::descriptor)
+				.map(SearchIndex.Hit::descriptor)
 				.forEach(result::add);
 
 		log.trace("{} results found", result.size());
 	}
-
-	private record Match(Descriptor descriptor, double factor) {
-
-		private static final Match _empty = new Match(null, 0);
-
-		boolean isEmpty() {
-			return descriptor == null;
-		}
-
-		static Match of(Descriptor d, Search s) {
-			if (d == null)
-				return _empty;
-
-			// matching ref-ids
-			if (s.words.size() == 1
-					&& d.refId != null
-					&& d.refId.equalsIgnoreCase(s.words.get(0)))
-				return new Match(d, 1e7);
-
-			// filter by tags
-			if (!s.tags.isEmpty()) {
-				if (Strings.nullOrEmpty(d.tags))
-					return _empty;
-
-				var tags = Arrays.stream(d.tags.split(","))
-						.map(tag -> tag.strip().toLowerCase())
-						.filter(Strings::notEmpty)
-						.collect(Collectors.toSet());
-				for (var tag : s.tags) {
-					if (!tags.contains(tag))
-						return _empty;
-				}
-			}
-
-			double factor = 0;
-			for (var word : s.words) {
-				var nameMatch = wordMatch(Labels.name(d), word);
-				var tagMatch = wordMatch(d.tags, word);
-				if (nameMatch == 0 && tagMatch == 0)
-					return _empty;
-				factor += nameMatch + tagMatch;
-			}
-
-			return new Match(d, factor);
-		}
-
-		private static double wordMatch(String phrase, String word) {
-			if (Strings.nullOrEmpty(phrase))
-				return 0;
-			double pos = phrase.toLowerCase().indexOf(word);
-			return pos >= 0
-					? word.length() * Math.sqrt(1.0 / (42.0 + pos))
-					: 0;
-		}
-	}
 }
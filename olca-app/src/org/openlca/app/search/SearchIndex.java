@@ -0,0 +1,700 @@
+package org.openlca.app.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.openlca.app.navigation.ModelTypeOrder;
+import org.openlca.app.util.Labels;
+import org.openlca.core.database.CategoryDao;
+import org.openlca.core.database.Daos;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.database.ParameterDao;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.Parameter;
+import org.openlca.core.model.ParameterScope;
+import org.openlca.core.model.descriptors.CategoryDescriptor;
+import org.openlca.core.model.descriptors.Descriptor;
+import org.openlca.core.model.descriptors.RootDescriptor;
+import org.openlca.util.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gnu.trove.iterator.TIntByteIterator;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntByteHashMap;
+import gnu.trove.map.hash.TIntDoubleHashMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+
+/**
+ * An inverted full-text index of the root descriptors of a database. The
+ * index maps the tokens of the descriptor names, tags, and category paths to
+ * the descriptors that contain them. It is built once per database, on the
+ * first search, and
+ * then kept up to date via the hooks in {@link org.openlca.app.db.Cache}: see
+ * {@link #put(Descriptor)}, {@link #update(Descriptor)}, and
+ * {@link #invalidate(ModelType)}.
+ * <p>
+ * A query word matches a token when the token contains it, like in the
+ * phrase matching of the former search. The candidate tokens of a query word
+ * are looked up in a trigram index of the vocabulary, so that the query time
+ * depends on the number of matches but not on the size of the vocabulary or
+ * the number of descriptors in the database. Only query words with less than
+ * three characters are matched against the complete vocabulary. Matches in
+ * names rank higher than matches in tags, which rank higher than matches in
+ * category paths.
+ * <p>
+ * A change of a category can change the paths of many descriptors. Thus, it
+ * marks the category paths as outdated; they are then loaded again before
+ * the next query and the tokens of all indexed descriptors are updated from
+ * memory.
+ * <p>
+ * The index is built and reloaded outside of the class lock, so that the
+ * cache hooks that are called when a model is saved are not blocked by a
+ * running search. Changes that arrive while the index is loaded are recorded
+ * and applied to the loaded index before it is published.
+ */
+public final class SearchIndex {
+
+	static final byte NAME = 1;
+	static final byte TAG = 2;
+	static final byte CATEGORY = 4;
+
+	/** The length of the n-grams of the vocabulary index. */
+	private static final int GRAM = 3;
+
+	private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+	/** Only one index is loaded at a time. */
+	private static final Object loadLock = new Object();
+	private static SearchIndex instance;
+
+	/**
+	 * The changes (descriptors or model types) that arrived while an index
+	 * was loaded; {@code null} when no index is loaded or when the loaded
+	 * index was invalidated in the meantime.
+	 */
+	private static List<Object> pending;
+
+	private final IDatabase db;
+
+	/** The indexed descriptors; removed slots are set to null. */
+	private final List<Descriptor> docs = new ArrayList<>();
+	/** The tokens of each document, used for removing it from the index. */
+	private final List<String[]> docTerms = new ArrayList<>();
+	private final TIntArrayList freeSlots = new TIntArrayList();
+
+	/** Maps the IDs of the descriptors to their slots, per model type. */
+	private final Map<ModelType, TLongIntHashMap> slots = new HashMap<>();
+
+	/** term -> (doc -> field bits) */
+	private final Map<String, TIntByteHashMap> postings = new HashMap<>();
+	/** full tag -> docs; used for exact tag filters like {@code #tag} */
+	private final Map<String, TIntArrayList> tagIndex = new HashMap<>();
+	/** lower-case reference ID -> docs */
+	private final Map<String, TIntArrayList> refIds = new HashMap<>();
+
+	/** category ID -> tokens of the full category path */
+	private Map<Long, String[]> categoryTerms = new HashMap<>();
+
+	/**
+	 * The vocabulary: all terms that were ever indexed, by their IDs. Terms
+	 * that are not used anymore stay in the vocabulary but have no postings.
+	 */
+	private final List<String> vocabulary = new ArrayList<>();
+	private final TObjectIntHashMap<String> termIds = new TObjectIntHashMap<>();
+	/** trigram -> IDs of the terms that contain it */
+	private final Map<String, TIntArrayList> grams = new HashMap<>();
+
+	/**
+	 * The model types that need to be reloaded before the next query. If it
+	 * contains the category type, the category paths are reloaded.
+	 */
+	private final Set<ModelType> staleTypes = EnumSet.noneOf(ModelType.class);
+
+	private SearchIndex(IDatabase db) {
+		this.db = db;
+	}
+
+	/**
+	 * Returns the index of the given database. If there is no index yet for
+	 * that database, it is built which is an expensive operation; thus, this
+	 * should not be called in the UI thread.
+	 */
+	static SearchIndex of(IDatabase db) {
+		synchronized (loadLock) {
+			SearchIndex index;
+			Set<ModelType> stale;
+			synchronized (SearchIndex.class) {
+				index = instance != null && instance.db == db
+						? instance
+						: null;
+				stale = index != null
+						? EnumSet.copyOf(index.staleTypes)
+						: EnumSet.noneOf(ModelType.class);
+				if (index != null && stale.isEmpty())
+					return index;
+				if (index != null) {
+					index.staleTypes.clear();
+				}
+				pending = new ArrayList<>();
+			}
+
+			// load the descriptors outside of the class lock
+			var loaded = new EnumMap<ModelType, List<? extends Descriptor>>(
+					ModelType.class);
+			Map<Long, String[]> paths = null;
+			if (index == null) {
+				log.trace("build search index for {}", db.getName());
+				index = new SearchIndex(db);
+				index.build();
+			} else {
+				for (var type : stale) {
+					if (type == ModelType.CATEGORY) {
+						log.trace("reload category paths in search index");
+						paths = categoryTermsOf(db);
+						continue;
+					}
+					log.trace("reload type {} in search index", type);
+					loaded.put(type, descriptorsOf(db, type));
+				}
+			}
+
+			synchronized (SearchIndex.class) {
+				if (paths != null) {
+					index.categoryTerms = paths;
+				}
+				for (var e : loaded.entrySet()) {
+					index.replaceAll(e.getKey(), e.getValue());
+				}
+				if (paths != null) {
+					index.reindexAll();
+				}
+				var changes = pending;
+				pending = null;
+				if (changes == null) {
+					// invalidated while loading; use it for this query only
+					return index;
+				}
+				for (var change : changes) {
+					if (change instanceof Descriptor d) {
+						index.apply(d);
+					} else if (change instanceof ModelType type) {
+						index.staleTypes.add(type);
+					}
+				}
+				if (instance == null || instance.db != db) {
+					instance = index;
+				}
+				return index;
+			}
+		}
+	}
+
+	/**
+	 * Drops the current index. It is rebuilt on the next search. This is
+	 * called when the database is closed or when all caches are evicted.
+	 */
+	public static synchronized void invalidate() {
+		instance = null;
+		pending = null;
+	}
+
+	/**
+	 * Marks the descriptors of the given type as outdated, so that they are
+	 * reloaded before the next query. This is called when the navigation tree
+	 * is refreshed, because models may have been written directly to the
+	 * database, e.g. by imports. If the type is {@code null}, the complete
+	 * index is dropped.
+	 */
+	public static synchronized void invalidate(ModelType type) {
+		if (type == null) {
+			invalidate();
+			return;
+		}
+		if (instance != null) {
+			instance.staleTypes.add(type);
+		}
+		if (pending != null) {
+			pending.add(type);
+		}
+	}
+
+	/**
+	 * Adds the given (new) descriptor to the current index, if there is one.
+	 */
+	public static synchronized void put(Descriptor d) {
+		if (d == null)
+			return;
+		if (d.type == ModelType.CATEGORY) {
+			invalidate(ModelType.CATEGORY);
+			return;
+		}
+		if (pending != null) {
+			pending.add(d);
+		}
+		if (instance == null)
+			return;
+		instance.remove(d.type, d.id);
+		instance.add(d);
+	}
+
+	/**
+	 * Reloads the descriptor with the type and ID of the given descriptor from
+	 * the database and updates the current index accordingly. If the
+	 * descriptor does not exist anymore, it is removed from the index.
+	 */
+	public static synchronized void update(Descriptor d) {
+		if (d == null)
+			return;
+		if (d.type == null) {
+			invalidate();
+			return;
+		}
+		if (d.type == ModelType.CATEGORY) {
+			invalidate(ModelType.CATEGORY);
+			return;
+		}
+		if (pending != null) {
+			pending.add(d);
+		}
+		if (instance != null) {
+			instance.apply(d);
+		}
+	}
+
+	private void apply(Descriptor d) {
+		remove(d.type, d.id);
+		var fresh = reload(d.type, d.id);
+		if (fresh != null) {
+			add(fresh);
+		}
+	}
+
+	private void build() {
+		categoryTerms = categoryTermsOf(db);
+		for (var type : ModelTypeOrder.getOrderedTypes()) {
+			for (var d : descriptorsOf(db, type)) {
+				add(d);
+			}
+		}
+		log.trace("indexed {} descriptors with {} distinct terms",
+				docs.size() - freeSlots.size(), postings.size());
+	}
+
+	private static List<? extends Descriptor> descriptorsOf(
+			IDatabase db, ModelType type) {
+		if (type == ModelType.PARAMETER)
+			return new ParameterDao(db).getGlobalDescriptors();
+		var dao = Daos.root(db, type);
+		return dao != null
+				? dao.getDescriptors()
+				: Collections.emptyList();
+	}
+
+	/**
+	 * Returns the tokens of the full category paths of the given database,
+	 * mapped by the category IDs.
+	 */
+	private static Map<Long, String[]> categoryTermsOf(IDatabase db) {
+		var categories = new CategoryDao(db).descriptorMap();
+		var terms = new HashMap<Long, String[]>();
+		for (var id : categories.keySet()) {
+			pathTerms(id, categories, terms, 0);
+		}
+		return terms;
+	}
+
+	private static String[] pathTerms(
+			long id,
+			Map<Long, CategoryDescriptor> all,
+			Map<Long, String[]> known,
+			int depth
+	) {
+		var terms = known.get(id);
+		if (terms != null)
+			return terms;
+		var c = all.get(id);
+		if (c == null)
+			return new String[0];
+		var set = new HashSet<String>();
+		tokenize(c.name, set);
+		// the depth check is a guard against invalid cycles in the data
+		if (c.category != null && c.category != id && depth < 100) {
+			Collections.addAll(
+					set, pathTerms(c.category, all, known, depth + 1));
+		}
+		terms = set.toArray(new String[0]);
+		known.put(id, terms);
+		return terms;
+	}
+
+	/**
+	 * Indexes all descriptors again, e.g. after the category paths changed.
+	 * No data are loaded from the database for this.
+	 */
+	private void reindexAll() {
+		var all = new ArrayList<Descriptor>();
+		for (var d : docs) {
+			if (d != null) {
+				all.add(d);
+			}
+		}
+		for (var d : all) {
+			remove(d.type, d.id);
+			add(d);
+		}
+	}
+
+	/**
+	 * Replaces all descriptors of the given type in the index.
+	 */
+	private void replaceAll(ModelType type, List<? extends Descriptor> all) {
+		var typeSlots = slots.get(type);
+		if (typeSlots != null) {
+			for (long id : typeSlots.keys()) {
+				remove(type, id);
+			}
+		}
+		for (var d : all) {
+			add(d);
+		}
+	}
+
+	private Descriptor reload(ModelType type, long id) {
+		if (type == ModelType.PARAMETER) {
+			var param = db.get(Parameter.class, id);
+			return param != null && param.scope == ParameterScope.GLOBAL
+					? Descriptor.of(param)
+					: null;
+		}
+		return Daos.root(db, type).getDescriptor(id);
+	}
+
+	private void add(Descriptor d) {
+		if (d == null || d.type == null)
+			return;
+		int doc;
+		if (freeSlots.isEmpty()) {
+			doc = docs.size();
+			docs.add(d);
+			docTerms.add(null);
+		} else {
+			doc = freeSlots.removeAt(freeSlots.size() - 1);
+			docs.set(doc, d);
+		}
+		slots.computeIfAbsent(d.type, t -> new TLongIntHashMap()).put(d.id, doc);
+
+		var terms = new HashMap<String, Byte>();
+		var buffer = new HashSet<String>();
+		tokenize(Labels.name(d), buffer);
+		mark(terms, buffer, NAME);
+
+		if (Strings.notEmpty(d.tags)) {
+			buffer.clear();
+			for (var tag : d.tags.split(",")) {
+				var t = tag.strip().toLowerCase();
+				if (t.isEmpty())
+					continue;
+				tagIndex.computeIfAbsent(t, k -> new TIntArrayList()).add(doc);
+				tokenize(t, buffer);
+			}
+			mark(terms, buffer, TAG);
+		}
+
+		if (d instanceof RootDescriptor r && r.category != null) {
+			var path = categoryTerms.get(r.category);
+			if (path != null) {
+				buffer.clear();
+				Collections.addAll(buffer, path);
+				mark(terms, buffer, CATEGORY);
+			}
+		}
+
+		var keys = new String[terms.size()];
+		int i = 0;
+		for (var e : terms.entrySet()) {
+			var term = e.getKey();
+			var posting = postings.get(term);
+			if (posting == null) {
+				posting = new TIntByteHashMap();
+				postings.put(term, posting);
+				addToVocabulary(term);
+			}
+			posting.put(doc, e.getValue());
+			keys[i++] = term;
+		}
+		docTerms.set(doc, keys);
+
+		if (d.refId != null) {
+			refIds.computeIfAbsent(d.refId.toLowerCase(), k -> new TIntArrayList())
+					.add(doc);
+		}
+	}
+
+	private void addToVocabulary(String term) {
+		if (termIds.containsKey(term))
+			return;
+		int id = vocabulary.size();
+		vocabulary.add(term);
+		termIds.put(term, id);
+		for (int i = 0; i + GRAM <= term.length(); i++) {
+			var ids = grams.computeIfAbsent(
+					term.substring(i, i + GRAM), k -> new TIntArrayList());
+			// the IDs of a term are added in sequence, so a repeated
+			// trigram of the same term is the last entry
+			if (ids.isEmpty() || ids.get(ids.size() - 1) != id) {
+				ids.add(id);
+			}
+		}
+	}
+
+	private void mark(Map<String, Byte> terms, Set<String> tokens, byte field) {
+		for (var token : tokens) {
+			terms.merge(token, field, (a, b) -> (byte) (a | b));
+		}
+	}
+
+	private void remove(ModelType type, long id) {
+		var typeSlots = slots.get(type);
+		if (typeSlots == null || !typeSlots.containsKey(id))
+			return;
+		int doc = typeSlots.remove(id);
+		var d = docs.get(doc);
+		var terms = docTerms.get(doc);
+		if (terms != null) {
+			for (var term : terms) {
+				var posting = postings.get(term);
+				if (posting == null)
+					continue;
+				posting.remove(doc);
+				if (posting.isEmpty()) {
+					postings.remove(term);
+				}
+			}
+		}
+		if (d != null && Strings.notEmpty(d.tags)) {
+			for (var tag : d.tags.split(",")) {
+				removeFrom(tagIndex, tag.strip().toLowerCase(), doc);
+			}
+		}
+		if (d != null && d.refId != null) {
+			removeFrom(refIds, d.refId.toLowerCase(), doc);
+		}
+		docs.set(doc, null);
+		docTerms.set(doc, null);
+		freeSlots.add(doc);
+	}
+
+	private void removeFrom(Map<String, TIntArrayList> map, String key, int doc) {
+		var list = map.get(key);
+		if (list == null)
+			return;
+		list.remove(doc);
+		if (list.isEmpty()) {
+			map.remove(key);
+		}
+	}
+
+	/**
+	 * Returns the matching descriptors of the given query, ranked by their
+	 * relevance.
+	 *
+	 * @param words      the query words; a descriptor must match all of them
+	 * @param tags       exact tags the descriptor must have
+	 * @param typeFilter an optional model type filter, can be null
+	 */
+	List<Hit> find(
+			List<String> words, List<String> tags, ModelType typeFilter) {
+		// the index is modified by the cache hooks under the class lock
+		synchronized (SearchIndex.class) {
+			return findSync(words, tags, typeFilter);
+		}
+	}
+
+	private List<Hit> findSync(
+			List<String> words, List<String> tags, ModelType typeFilter) {
+
+		// an exact reference ID match
+		if (words.size() == 1 && tags.isEmpty()) {
+			var docsOfId = refIds.get(words.get(0));
+			if (docsOfId != null) {
+				var hits = new ArrayList<Hit>();
+				docsOfId.forEach(doc -> {
+					var d = docs.get(doc);
+					if (d != null && (typeFilter == null || d.type == typeFilter)) {
+						hits.add(new Hit(d, 1e7));
+					}
+					return true;
+				});
+				if (!hits.isEmpty())
+					return hits;
+			}
+		}
+
+		TIntDoubleHashMap scores = null;
+
+		// filter by tags
+		for (var tag : tags) {
+			var tagged = tagIndex.get(tag);
+			if (tagged == null)
+				return List.of();
+			var next = new TIntDoubleHashMap();
+			for (int i = 0; i < tagged.size(); i++) {
+				int doc = tagged.get(i);
+				if (scores == null || scores.containsKey(doc)) {
+					next.put(doc, 0);
+				}
+			}
+			scores = next;
+		}
+
+		// score the words; each word is split into the same tokens as the
+		// indexed phrases and each of these tokens must match
+		var tokens = new ArrayList<String>();
+		for (var word : words) {
+			var set = new HashSet<String>();
+			tokenize(word, set);
+			tokens.addAll(set);
+		}
+		for (var token : tokens) {
+			var wordScores = scoreToken(token);
+			var next = new TIntDoubleHashMap();
+			var it = wordScores.iterator();
+			while (it.hasNext()) {
+				it.advance();
+				int doc = it.key();
+				if (scores == null) {
+					next.put(doc, it.value());
+				} else if (scores.containsKey(doc)) {
+					next.put(doc, scores.get(doc) + it.value());
+				}
+			}
+			scores = next;
+			if (scores.isEmpty())
+				return List.of();
+		}
+
+		if (scores == null)
+			return List.of();
+		var hits = new ArrayList<Hit>(scores.size());
+		var it = scores.iterator();
+		while (it.hasNext()) {
+			it.advance();
+			var d = docs.get(it.key());
+			if (d == null)
+				continue;
+			if (typeFilter != null && d.type != typeFilter)
+				continue;
+			hits.add(new Hit(d, it.value()));
+		}
+		return hits;
+	}
+
+	/**
+	 * Returns the best score of each document with a term that contains the
+	 * given token. Exact term matches rank higher than prefix matches which
+	 * rank higher than infix matches. Matches in names rank higher than
+	 * matches in tags, which rank higher than matches in category paths.
+	 */
+	private TIntDoubleHashMap scoreToken(String token) {
+		var scores = new TIntDoubleHashMap();
+		for (var term : candidatesOf(token)) {
+			int pos = term.indexOf(token);
+			if (pos < 0)
+				continue;
+			var posting = postings.get(term);
+			if (posting == null)
+				continue;
+			double quality = token.length() * (term.length() == token.length()
+					? 1.0
+					: Math.sqrt(1.0 / (2.0 + pos + term.length() - token.length())));
+			TIntByteIterator it = posting.iterator();
+			while (it.hasNext()) {
+				it.advance();
+				double s = quality * fieldWeight(it.value());
+				int doc = it.key();
+				if (s > scores.get(doc)) {
+					scores.put(doc, s);
+				}
+			}
+		}
+		return scores;
+	}
+
+	/**
+	 * Returns the terms of the vocabulary that can contain the given token:
+	 * these are the terms of the rarest trigram of the token. Short tokens
+	 * match large parts of the vocabulary anyway, and for them the complete
+	 * vocabulary is returned.
+	 */
+	private Iterable<String> candidatesOf(String token) {
+		if (token.length() < GRAM)
+			return postings.keySet();
+		TIntArrayList rarest = null;
+		for (int i = 0; i + GRAM <= token.length(); i++) {
+			var ids = grams.get(token.substring(i, i + GRAM));
+			if (ids == null)
+				return List.of();
+			if (rarest == null || ids.size() < rarest.size()) {
+				rarest = ids;
+			}
+		}
+		if (rarest == null)
+			return List.of();
+		var candidates = new ArrayList<String>(rarest.size());
+		for (int i = 0; i < rarest.size(); i++) {
+			candidates.add(vocabulary.get(rarest.get(i)));
+		}
+		return candidates;
+	}
+
+	private static double fieldWeight(byte fields) {
+		if ((fields & NAME) != 0)
+			return 1.0;
+		if ((fields & TAG) != 0)
+			return 0.7;
+		return 0.4;
+	}
+
+	/**
+	 * Splits the given phrase into lower-case tokens of letters and digits.
+	 */
+	static void tokenize(String phrase, Set<String> tokens) {
+		if (Strings.nullOrEmpty(phrase))
+			return;
+		var lower = phrase.toLowerCase();
+		int start = -1;
+		for (int i = 0; i < lower.length(); i++) {
+			char c = lower.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				if (start < 0) {
+					start = i;
+				}
+				continue;
+			}
+			if (start >= 0) {
+				tokens.add(lower.substring(start, i));
+				start = -1;
+			}
+		}
+		if (start >= 0) {
+			tokens.add(lower.substring(start));
+		}
+	}
+
+	record Hit(Descriptor descriptor, double score) {
+
+		Hit {
+			Objects.requireNonNull(descriptor);
+		}
+	}
+}
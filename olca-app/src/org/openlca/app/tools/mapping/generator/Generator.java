@@ -3,6 +3,8 @@ package org.openlca.app.tools.mapping.generator;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.openlca.app.M;
 import org.openlca.app.tools.mapping.model.FlowProvider;
@@ -44,14 +46,22 @@ public class Generator implements Runnable {
 				return;
 			}
 
-			log.info("match unmapped flows");
-			var matcher = new Matcher(targetSystem);
-			for (var sourceFlow : sourceFlows) {
-				var source = sourceFlow.copy();
+			log.info("index target flows");
+			var index = new TargetIndex(targetSystem);
+
+			log.info("match {} unmapped flows", sourceFlows.size());
+			var matches = matchAll(sourceFlows, index);
+
+			// providers are assigned sequentially in the order of the source
+			// flows as this modifies the (shared) target flows
+			var matcher = new Matcher(targetSystem, index);
+			for (int i = 0; i < sourceFlows.size(); i++) {
+				var source = sourceFlows.get(i).copy();
 				source.status = MappingStatus.ok();
-				FlowRef matched = matcher.find(source);
+				FlowRef matched = matches[i];
 				FlowRef target = null;
 				if (matched != null) {
+					matcher.checkAddProvider(source, matched);
 					target = matched.copy();
 					target.status = getStatus(source, target);
 				}
@@ -63,6 +73,38 @@ public class Generator implements Runnable {
 		}
 	}
 
+	/**
+	 * Matches the given source flows in parallel. Each worker has its own
+	 * matcher and processes a fixed slice of the source flows, so that the
+	 * result does not depend on the scheduling of the threads.
+	 */
+	private FlowRef[] matchAll(List<FlowRef> sourceFlows, TargetIndex index)
+		throws InterruptedException {
+		var matches = new FlowRef[sourceFlows.size()];
+		int workers = Math.max(1, Math.min(
+			Runtime.getRuntime().availableProcessors(),
+			sourceFlows.size() / 50));
+		var pool = Executors.newFixedThreadPool(workers);
+		for (int w = 0; w < workers; w++) {
+			int offset = w;
+			pool.execute(() -> {
+				var matcher = new Matcher(targetSystem, index);
+				for (int i = offset; i < matches.length; i += workers) {
+					try {
+						matches[i] = matcher.find(sourceFlows.get(i));
+					} catch (Exception e) {
+						log.error("failed to match flow " + sourceFlows.get(i), e);
+					}
+				}
+			});
+		}
+		pool.shutdown();
+		while (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+			log.trace("waiting for flow matchers to finish");
+		}
+		return matches;
+	}
+
 	private MappingStatus getStatus(FlowRef source, FlowRef target) {
 		if (differentUnits(source, target))
 			return MappingStatus.warn(M.DifferentUnits);
@@ -1,7 +1,6 @@
 package org.openlca.app.tools.mapping.generator;
 
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.openlca.app.tools.mapping.model.DBProvider;
 import org.openlca.app.tools.mapping.model.FlowProvider;
@@ -22,7 +21,7 @@ import org.openlca.util.Categories;
 class Matcher {
 
 	private final IDatabase db;
-	private final Map<String, FlowRef> targetFlows;
+	private final TargetIndex index;
 
 	final CompartmentStemmer compartmentStemmer;
 
@@ -31,24 +30,32 @@ class Matcher {
 	private final WordBuffer phrase1;
 	private final WordBuffer phrase2;
 
+	// the parsed name of the current source flow
+	private final WordBuffer sourceName;
+	private String sourceNameText;
+
 
 	// helper structures for collecting provider information
 	private Categories.PathBuilder categories;
 	private Map<Long, String> locations;
 
-	Matcher(FlowProvider targetSystem) {
+	/**
+	 * Creates a new matcher for the given target system and index. A matcher
+	 * is not thread-safe; when flows are matched in parallel, each thread
+	 * needs its own matcher but the index can be shared.
+	 */
+	Matcher(FlowProvider targetSystem, TargetIndex index) {
 		db = targetSystem instanceof DBProvider
 			? ((DBProvider) targetSystem).db()
 			: null;
-		this.targetFlows = targetSystem.getFlowRefs().stream()
-			.filter(f -> f.flow != null && f.flow.refId != null)
-			.collect(Collectors.toMap(f -> f.flow.refId, f -> f));
+		this.index = index;
 
 		this.compartmentStemmer = new CompartmentStemmer();
 		this.similarity = new PhraseSimilarity();
 		this.parser = new PhraseParser();
 		this.phrase1 = new WordBuffer();
 		this.phrase2 = new WordBuffer();
+		this.sourceName = new WordBuffer();
 	}
 
 	double similarityOf(String s1, String s2) {
@@ -59,6 +66,34 @@ class Matcher {
 		return similarity.get(phrase1, phrase2);
 	}
 
+	/**
+	 * Returns the target flow at the given position in the target index.
+	 */
+	FlowRef targetAt(int i) {
+		return index.flows.get(i);
+	}
+
+	/**
+	 * Computes the similarity of the given name with the name of the target
+	 * flow at the given index position, using the cached parsed name of that
+	 * target flow.
+	 */
+	double nameSimilarityOf(String name, int target) {
+		var targetName = index.nameOf(target);
+		if (name == null || targetName == null)
+			return 0;
+		if (!name.equals(sourceNameText)) {
+			parser.parseInto(sourceName, name);
+			sourceNameText = name;
+		}
+		return similarity.get(sourceName, targetName);
+	}
+
+	/**
+	 * Finds the best matching target flow for the given source flow. This
+	 * does not assign a provider to the matched target flow; call
+	 * {@link #checkAddProvider(FlowRef, FlowRef)} for this.
+	 */
 	FlowRef find(FlowRef s) {
 		if (s == null
 			|| s.flow == null
@@ -66,29 +101,22 @@ class Matcher {
 			return null;
 
 		// test whether there is a direct match based on the reference IDs
-		var t = targetFlows.get(s.flow.refId);
-		if (t != null) {
-			checkAddProvider(s, t);
+		var t = index.byRefId.get(s.flow.refId);
+		if (t != null)
 			return t;
-		}
 
 		var score = Score.noMatch();
-		for (var candidate : targetFlows.values()) {
-			var nextScore = Score.compute(this, s, candidate);
+		for (int i : index.candidatesOf(s)) {
+			var nextScore = Score.compute(this, s, i);
 			if (nextScore.betterThan(score)) {
 				score = nextScore;
-				t = candidate;
+				t = index.flows.get(i);
 			}
 		}
-
-		if (t == null)
-			return null;
-
-		checkAddProvider(s, t);
 		return t;
 	}
 
-	private void checkAddProvider(FlowRef s, FlowRef t) {
+	void checkAddProvider(FlowRef s, FlowRef t) {
 		if (db == null || t == null || t.flow == null)
 			return;
 		if (t.flow.flowType == FlowType.ELEMENTARY_FLOW)
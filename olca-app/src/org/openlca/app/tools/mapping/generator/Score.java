@@ -21,7 +21,12 @@ record Score(
 		return this.equals(noMatch) || nameScore == 0;
 	}
 
-	static Score compute(Matcher matcher, FlowRef s, FlowRef t) {
+	/**
+	 * Computes the score of the source flow {@code s} and the target flow at
+	 * the given position in the target index of the matcher.
+	 */
+	static Score compute(Matcher matcher, FlowRef s, int target) {
+		var t = matcher.targetAt(target);
 		if (s == null
 			|| s.flow == null
 			|| t == null
@@ -29,7 +34,7 @@ record Score(
 			return noMatch;
 
 		double nameScore = s.flow.name != null && t.flow.name != null
-			? matcher.similarityOf(s.flow.name, t.flow.name)
+			? matcher.nameSimilarityOf(s.flow.name, target)
 			: 0;
 		if (nameScore == 0)
 			return noMatch;
@@ -0,0 +1,181 @@
+package org.openlca.app.tools.mapping.generator;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openlca.app.tools.mapping.model.FlowProvider;
+import org.openlca.core.io.maps.FlowRef;
+import org.openlca.text.PhraseParser;
+import org.openlca.text.WordBuffer;
+import org.openlca.util.Strings;
+import org.slf4j.LoggerFactory;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.set.hash.TIntHashSet;
+
+/**
+ * A blocking index of the flows of a target system. It maps the stemmed words
+ * of the flow names to the flows that contain them, with a fallback on
+ * character tri-grams for words that have no exact stem match. This is used to
+ * prune the set of target flows that are compared with a source flow. Also,
+ * the parsed names of the target flows are cached here so that they do not
+ * need to be parsed again for each comparison.
+ * <p>
+ * The index is immutable after construction and can be shared between
+ * multiple matchers that run in parallel.
+ */
+class TargetIndex {
+
+	private static Set<String> stopwords;
+
+	/**
+	 * The target flows in a stable order; the index positions are used as
+	 * IDs. This is the iteration order of the flows by reference ID, which
+	 * was the order in which the flows were compared before, so that ties
+	 * in the scores are resolved in the same way.
+	 */
+	final List<FlowRef> flows;
+	final Map<String, FlowRef> byRefId;
+
+	private final WordBuffer[] names;
+
+	private final Map<String, TIntArrayList> stems = new HashMap<>();
+	private final Map<String, TIntArrayList> grams = new HashMap<>();
+
+	TargetIndex(FlowProvider targetSystem) {
+		flows = new ArrayList<>();
+		byRefId = new HashMap<>();
+		for (var f : targetSystem.getFlowRefs()) {
+			if (f.flow == null || f.flow.refId == null)
+				continue;
+			byRefId.putIfAbsent(f.flow.refId, f);
+		}
+		flows.addAll(byRefId.values());
+
+		int n = flows.size();
+		names = new WordBuffer[n];
+		var parser = new PhraseParser();
+		for (int i = 0; i < n; i++) {
+			var f = flows.get(i);
+			if (f.flow.name != null) {
+				var buffer = new WordBuffer();
+				parser.parseInto(buffer, f.flow.name);
+				names[i] = buffer;
+			}
+			for (var stem : stemsOf(f.flow.name)) {
+				stems.computeIfAbsent(stem, s -> new TIntArrayList()).add(i);
+				for (var gram : gramsOf(stem)) {
+					var list = grams.computeIfAbsent(gram, g -> new TIntArrayList());
+					if (list.isEmpty() || list.get(list.size() - 1) != i) {
+						list.add(i);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the parsed name of the target flow at the given position or
+	 * null if that flow has no name.
+	 */
+	WordBuffer nameOf(int i) {
+		return names[i];
+	}
+
+	/**
+	 * Returns the positions of the candidate flows for the given source flow,
+	 * in ascending order. The candidates are all target flows that share
+	 * stemmed name words (or tri-grams of them) with the source flow; they
+	 * are not capped so that the best match is always scored.
+	 */
+	int[] candidatesOf(FlowRef s) {
+		if (s == null || s.flow == null)
+			return new int[0];
+		var candidates = new TIntHashSet();
+		for (var stem : stemsOf(s.flow.name)) {
+			var exact = stems.get(stem);
+			if (exact != null) {
+				candidates.addAll(exact);
+				continue;
+			}
+			for (var gram : gramsOf(stem)) {
+				var fuzzy = grams.get(gram);
+				if (fuzzy != null) {
+					candidates.addAll(fuzzy);
+				}
+			}
+		}
+
+		// if there are no shared words at all, we fall back to a full scan
+		if (candidates.isEmpty()) {
+			var all = new int[flows.size()];
+			for (int i = 0; i < all.length; i++) {
+				all[i] = i;
+			}
+			return all;
+		}
+
+		var positions = candidates.toArray();
+		Arrays.sort(positions);
+		return positions;
+	}
+
+	static Set<String> stemsOf(String phrase) {
+		if (Strings.nullOrEmpty(phrase))
+			return Collections.emptySet();
+		var stops = stopwords();
+		var set = new HashSet<String>();
+		for (var word : phrase.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+			if (word.length() < 2 || stops.contains(word))
+				continue;
+			var stem = Stemmer.stem(word);
+			if (!stem.isEmpty()) {
+				set.add(stem);
+			}
+		}
+		return set;
+	}
+
+	private static List<String> gramsOf(String stem) {
+		if (stem.length() <= 3)
+			return List.of(stem);
+		var list = new ArrayList<String>(stem.length() - 2);
+		for (int i = 0; i + 3 <= stem.length(); i++) {
+			list.add(stem.substring(i, i + 3));
+		}
+		return list;
+	}
+
+	private static synchronized Set<String> stopwords() {
+		if (stopwords != null)
+			return stopwords;
+		var set = new HashSet<String>();
+		var stream = TargetIndex.class.getResourceAsStream("stopwords.txt");
+		if (stream != null) {
+			try (var reader = new BufferedReader(
+					new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					var word = line.strip().toLowerCase();
+					if (word.isEmpty() || word.startsWith("#"))
+						continue;
+					set.add(word);
+				}
+			} catch (Exception e) {
+				LoggerFactory.getLogger(TargetIndex.class)
+						.error("failed to read stopwords", e);
+			}
+		}
+		stopwords = set;
+		return set;
+	}
+}
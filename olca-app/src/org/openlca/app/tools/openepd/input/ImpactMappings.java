@@ -3,12 +3,14 @@ package org.openlca.app.tools.openepd.input;
 import java.util.HashSet;
 
 import org.openlca.app.M;
+import org.openlca.app.db.Cache;
 import org.openlca.app.util.Question;
 import org.openlca.core.database.CategoryDao;
 import org.openlca.core.database.IDatabase;
 import org.openlca.core.model.ImpactCategory;
 import org.openlca.core.model.ImpactMethod;
 import org.openlca.core.model.ModelType;
+import org.openlca.core.model.descriptors.Descriptor;
 import org.openlca.io.openepd.EpdDoc;
 import org.openlca.io.openepd.io.MappingModel;
 
@@ -60,11 +62,14 @@ record ImpactMappings(IDatabase db, EpdDoc doc) {
 				impact.code = epdInd.code();
 				impact.category = indicatorCategory;
 				impact = db.insert(impact);
+				Cache.registerNew(Descriptor.of(impact));
 				method.impactCategories.add(impact);
 				entry.indicator(impact);
 				entry.unit(epdInd.unitMatchOf(epdInd.unit()).orElse(null));
 			}
-			m.method(db.insert(method));
+			method = db.insert(method);
+			Cache.registerNew(Descriptor.of(method));
+			m.method(method);
 		}
 
 		return mapping;
@@ -1,9 +1,11 @@
 package org.openlca.app.tools.params;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import org.openlca.core.matrix.index.ImpactIndex;
 import org.openlca.core.model.AllocationMethod;
 import org.openlca.core.model.ImpactMethod;
 import org.openlca.core.model.ProductSystem;
@@ -15,16 +17,35 @@ record ParamResult(
 		ImpactMethod method,
 		AllocationMethod allocation,
 		ParamSeq seq,
-		Map<ImpactDescriptor, List<Double>> results
+		Map<ImpactDescriptor, double[]> results
 ) {
 
-	void append(LcaResult r) {
-		var impacts = r.impactIndex();
-		if (impacts == null || impacts.isEmpty())
+	/**
+	 * Creates the result series of the given impacts, filled with {@code NaN}
+	 * values for steps that are not calculated yet.
+	 */
+	void init(ImpactIndex impacts) {
+		if (impacts == null)
 			return;
 		for (var impact : impacts) {
-			double v = r.getTotalImpactValueOf(impact);
-			results.computeIfAbsent(impact, i -> new ArrayList<>()).add(v);
+			var series = new double[count()];
+			Arrays.fill(series, Double.NaN);
+			results.put(impact, series);
+		}
+	}
+
+	/**
+	 * Sets the values of the given result at the given step. This can be
+	 * called from different threads for different steps.
+	 */
+	void set(int step, ImpactIndex impacts, LcaResult r) {
+		if (impacts == null || r == null)
+			return;
+		for (var impact : impacts) {
+			var series = results.get(impact);
+			if (series != null && step >= 0 && step < series.length) {
+				series[step] = r.getTotalImpactValueOf(impact);
+			}
 		}
 	}
 
@@ -36,14 +57,19 @@ record ParamResult(
 		return new ArrayList<>(results.keySet());
 	}
 
+	double valueOf(ImpactDescriptor d, int step) {
+		var series = d != null ? results.get(d) : null;
+		return series != null && step >= 0 && step < series.length
+				? series[step]
+				: Double.NaN;
+	}
+
 	double[] seriesOf(ImpactDescriptor d) {
 		if (d == null || results == null)
 			return new double[0];
-		var list = results.get(d);
-		if (list == null)
-			return new double[0];
-		return list.stream()
-				.mapToDouble(Double::doubleValue)
-				.toArray();
+		var series = results.get(d);
+		return series != null
+				? series.clone()
+				: new double[0];
 	}
 }
@@ -3,10 +3,11 @@ package org.openlca.app.tools.params;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.openlca.app.util.Labels;
 import org.openlca.core.model.ParameterRedef;
 import org.openlca.io.xls.Excel;
@@ -14,6 +15,8 @@ import org.openlca.util.Strings;
 
 class ParamResultExport implements Runnable {
 
+	private static final int ROW_WINDOW = 500;
+
 	private final ParamResult result;
 	private final File target;
 	private Throwable err;
@@ -24,10 +27,17 @@ class ParamResultExport implements Runnable {
 		this.target = target;
 	}
 
+	/**
+	 * The rows are written in order into a streaming workbook, which keeps
+	 * only a window of rows in memory.
+	 */
 	@Override
 	public void run() {
-		try (var wb = new XSSFWorkbook()) {
+		var wb = new SXSSFWorkbook(ROW_WINDOW);
+		try {
 			var sheet = wb.createSheet("Results");
+			sheet.trackColumnForAutoSizing(0);
+			sheet.trackColumnForAutoSizing(1);
 			writeSetupSection(sheet);
 			writeParameterSection(sheet);
 			writeResultSection(sheet);
@@ -38,6 +48,12 @@ class ParamResultExport implements Runnable {
 			}
 		} catch (Exception e) {
 			this.err = e;
+		} finally {
+			wb.dispose();
+			try {
+				wb.close();
+			} catch (Exception ignored) {
+			}
 		}
 	}
 
@@ -45,7 +61,7 @@ class ParamResultExport implements Runnable {
 		return err;
 	}
 
-	private void writeSetupSection(Sheet sheet) {
+	private void writeSetupSection(SXSSFSheet sheet) {
 		Excel.cell(sheet, row++, 0, "Calculation setup");
 		Excel.cell(sheet, row, 0, "Product system");
 		Excel.cell(sheet, row++, 1, Labels.name(result.system()));
@@ -58,21 +74,34 @@ class ParamResultExport implements Runnable {
 		row++;
 	}
 
-	private void writeParameterSection(Sheet sheet) {
+	private void writeParameterSection(SXSSFSheet sheet) {
 		Excel.cell(sheet, row++, 0, "Parameters");
 		Excel.cell(sheet, row, 0, "Name");
 		Excel.cell(sheet, row, 1, "Context");
 		Excel.cell(sheet, row, 2, "Start value");
 		Excel.cell(sheet, row, 3, "End value");
 		Excel.cell(sheet, row, 5, "Iteration");
-		int headerRow = row;
+		for (int i = 0; i < result.count(); i++) {
+			Excel.cell(sheet, row, 6 + i, i + 1);
+		}
 		row++;
 
-		var paramRows = new HashMap<String, Integer>();
+		// collect the parameter values of the iterations first, as the rows
+		// of the streaming sheet need to be written in order
+		var values = new HashMap<String, double[]>();
+		for (int i = 0; i < result.count(); i++) {
+			for (var redef : result.seq().get(i)) {
+				var vals = values.computeIfAbsent(keyOf(redef), $ -> {
+					var a = new double[result.count()];
+					Arrays.fill(a, Double.NaN);
+					return a;
+				});
+				vals[i] = redef.value;
+			}
+		}
+
 		for (var param : result.seq().params()) {
 			var redef = param.redef;
-			var key = keyOf(redef);
-			paramRows.put(key, row);
 			Excel.cell(sheet, row, 0, redef.name);
 			var context = param.context != null
 					? Labels.name(param.context)
@@ -80,20 +109,17 @@ class ParamResultExport implements Runnable {
 			Excel.cell(sheet, row, 1, context);
 			Excel.cell(sheet, row, 2, param.start);
 			Excel.cell(sheet, row, 3, param.end);
+			var vals = values.get(keyOf(redef));
+			if (vals != null) {
+				for (int i = 0; i < vals.length; i++) {
+					if (!Double.isNaN(vals[i])) {
+						Excel.cell(sheet, row, 6 + i, vals[i]);
+					}
+				}
+			}
 			row++;
 		}
 		row++;
-
-		for (int i = 0; i < result.count(); i++) {
-			int col = 6 + i;
-			Excel.cell(sheet, headerRow, col, i + 1);
-			for (var redef : result.seq().get(i)) {
-				var paramRow = paramRows.get(keyOf(redef));
-				if (paramRow == null)
-					continue;
-				Excel.cell(sheet, paramRow, col, redef.value);
-			}
-		}
 	}
 
 	private String keyOf(ParameterRedef redef) {
@@ -104,7 +130,7 @@ class ParamResultExport implements Runnable {
 				: redef.name + "/" + redef.contextId;
 	}
 
-	private void writeResultSection(Sheet sheet) {
+	private void writeResultSection(SXSSFSheet sheet) {
 		Excel.cell(sheet, row++, 0, "Impact assessment results");
 		Excel.cell(sheet, row, 0, "Impact category");
 		Excel.cell(sheet, row, 1, "Unit");
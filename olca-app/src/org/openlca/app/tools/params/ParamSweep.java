@@ -0,0 +1,209 @@
+package org.openlca.app.tools.params;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.openlca.app.App;
+import org.openlca.app.db.Libraries;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.library.reader.LibReaderRegistry;
+import org.openlca.core.math.SystemCalculator;
+import org.openlca.core.matrix.MatrixData;
+import org.openlca.core.matrix.index.ImpactIndex;
+import org.openlca.core.matrix.index.TechFlow;
+import org.openlca.core.matrix.index.TechIndex;
+import org.openlca.core.model.AllocationMethod;
+import org.openlca.core.model.CalculationSetup;
+import org.openlca.core.model.ImpactMethod;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.ProductSystem;
+import org.openlca.core.model.Result;
+import org.openlca.core.results.LcaResult;
+import org.openlca.core.results.providers.ResultModelProvider;
+import org.openlca.core.results.providers.ResultProviders;
+import org.openlca.core.results.providers.SolverContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the calculations of a parameter analysis. The structure of the product
+ * system (the technosphere index with the provider links) and the impact
+ * index are created once. For each step of the sequence, only the matrices
+ * are built with the parameter values of that step and solved. The steps are
+ * calculated in parallel; each worker has its own library readers, as these
+ * are not known to be thread safe. A worker keeps just the total impact
+ * results of a step and disposes the result directly after that, so that the
+ * memory usage does not grow with the number of steps.
+ * <p>
+ * Linked results are added as sub-results to the matrices of each step.
+ * Sub-systems, however, would need to be calculated with the parameter
+ * values of the respective step; thus, when the product system contains
+ * sub-systems, the steps are calculated one after the other with the system
+ * calculator, as it handles them.
+ */
+class ParamSweep {
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+	private final IDatabase db;
+	private final ProductSystem system;
+	private final ImpactMethod method;
+	private final AllocationMethod allocation;
+	private final ParamSeq seq;
+
+	ParamSweep(
+			IDatabase db,
+			ProductSystem system,
+			ImpactMethod method,
+			AllocationMethod allocation,
+			ParamSeq seq
+	) {
+		this.db = db;
+		this.system = system;
+		this.method = method;
+		this.allocation = allocation;
+		this.seq = seq;
+	}
+
+	/**
+	 * Runs the analysis. The given function is called after each finished
+	 * step and should return {@code false} when the analysis was canceled;
+	 * steps that were not calculated then have {@code NaN} values.
+	 */
+	ParamResult run(BooleanSupplier onStep) throws InterruptedException {
+		int count = seq.count();
+		var impacts = ImpactIndex.of(method);
+		var result = new ParamResult(
+				system, method, allocation, seq, new HashMap<>());
+		result.init(impacts);
+
+		var techIndex = TechIndex.of(db, setupOf(0));
+		if (hasSubSystems(techIndex))
+			return runSequential(result, impacts, onStep);
+
+		int workers = Math.max(1, Math.min(
+				Runtime.getRuntime().availableProcessors(), count));
+		var next = new AtomicInteger();
+		var canceled = new AtomicReference<Boolean>(false);
+		var error = new AtomicReference<Exception>();
+		var pool = Executors.newFixedThreadPool(workers);
+		for (int w = 0; w < workers; w++) {
+			pool.execute(() -> {
+				var libs = Libraries.readersForCalculation().orElse(null);
+				try {
+					var subResults = linkedResultsOf(techIndex);
+					int i;
+					while (!canceled.get() && (i = next.getAndIncrement()) < count) {
+						try {
+							var r = calculate(techIndex, impacts, libs, subResults, i);
+							result.set(i, impacts, r);
+							r.dispose();
+						} catch (Exception e) {
+							error.compareAndSet(null, e);
+							canceled.set(true);
+							return;
+						}
+						synchronized (onStep) {
+							if (!onStep.getAsBoolean()) {
+								canceled.set(true);
+							}
+						}
+					}
+				} finally {
+					Libraries.releaseReaders(libs);
+				}
+			});
+		}
+		pool.shutdown();
+		while (!pool.awaitTermination(10, TimeUnit.SECONDS)) {
+			log.trace("waiting for parameter analysis to finish");
+		}
+		if (error.get() != null)
+			throw new RuntimeException(
+					"parameter analysis failed", error.get());
+		return result;
+	}
+
+	/**
+	 * Calculates the steps one after the other with the system calculator.
+	 */
+	private ParamResult runSequential(
+			ParamResult result, ImpactIndex impacts, BooleanSupplier onStep) {
+		for (int i = 0; i < seq.count(); i++) {
+			var calc = new SystemCalculator(db)
+					.withSolver(App.getSolver());
+			var libs = Libraries.readersForCalculation().orElse(null);
+			if (libs != null) {
+				calc.withLibraries(libs);
+			}
+			try {
+				var r = calc.calculateLazy(setupOf(i));
+				result.set(i, impacts, r);
+				r.dispose();
+			} finally {
+				Libraries.releaseReaders(libs);
+			}
+			if (!onStep.getAsBoolean())
+				break;
+		}
+		return result;
+	}
+
+	private boolean hasSubSystems(TechIndex techIndex) {
+		for (var techFlow : techIndex) {
+			var provider = techFlow.provider();
+			if (provider != null && provider.type == ModelType.PRODUCT_SYSTEM)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Creates the sub-results of the linked results in the given index. As
+	 * these do not depend on parameters, they are the same in each step.
+	 */
+	private Map<TechFlow, LcaResult> linkedResultsOf(TechIndex techIndex) {
+		var m = new HashMap<TechFlow, LcaResult>();
+		for (var techFlow : techIndex) {
+			if (!techFlow.isResult())
+				continue;
+			var r = db.get(Result.class, techFlow.providerId());
+			if (r == null)
+				continue;
+			m.put(techFlow, new LcaResult(ResultModelProvider.of(r)));
+		}
+		return m;
+	}
+
+	private LcaResult calculate(
+			TechIndex techIndex,
+			ImpactIndex impacts,
+			LibReaderRegistry libs,
+			Map<TechFlow, LcaResult> subResults,
+			int step
+	) {
+		var setup = setupOf(step);
+		var data = MatrixData.of(db, techIndex)
+				.withSetup(setup)
+				.withImpacts(impacts)
+				.withSubResults(subResults)
+				.build();
+		var context = SolverContext.of(db, data)
+				.withSolver(App.getSolver());
+		if (libs != null) {
+			context.withLibraries(libs);
+		}
+		return new LcaResult(ResultProviders.solve(context));
+	}
+
+	private CalculationSetup setupOf(int step) {
+		return CalculationSetup.of(system)
+				.withImpactMethod(method)
+				.withAllocation(allocation)
+				.withParameters(seq.get(step));
+	}
+}
@@ -1,7 +1,6 @@
 package org.openlca.app.tools.params;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 
@@ -33,9 +32,7 @@ import org.openlca.app.viewers.tables.Tables;
 import org.openlca.app.viewers.tables.modify.DoubleCellModifier;
 import org.openlca.app.viewers.tables.modify.ModifySupport;
 import org.openlca.core.database.IDatabase;
-import org.openlca.core.math.SystemCalculator;
 import org.openlca.core.model.AllocationMethod;
-import org.openlca.core.model.CalculationSetup;
 import org.openlca.core.model.ImpactMethod;
 import org.openlca.core.model.ProductSystem;
 import org.openlca.core.model.descriptors.Descriptor;
@@ -190,20 +187,14 @@ public class ParameterAnalysisDialog extends FormDialog {
 			new ProgressMonitorDialog(UI.shell()).run(true, true, monitor -> {
 				monitor.beginTask("Run parameter analysis", count);
 				var seq = ParamSeq.of(params, count);
-				var result = new ParamResult(
-						system, method, allocation, seq, new HashMap<>());
-				for (int i = 0; i < count; i++) {
-					if (monitor.isCanceled())
-						break;
-					monitor.subTask("Run iteration " + (i + 1) + " of " + count);
-					var setup = CalculationSetup.of(system)
-							.withImpactMethod(method)
-							.withAllocation(allocation)
-							.withParameters(seq.get(i));
-					var r = new SystemCalculator(db).calculateLazy(setup);
-					result.append(r);
+				var sweep = new ParamSweep(db, system, method, allocation, seq);
+				var done = new int[]{0};
+				var result = sweep.run(() -> {
+					done[0]++;
+					monitor.subTask("Finished iteration " + done[0] + " of " + count);
 					monitor.worked(1);
-				}
+					return !monitor.isCanceled();
+				});
 				ParameterAnalysisResultPage.open(result);
 				monitor.done();
 			});
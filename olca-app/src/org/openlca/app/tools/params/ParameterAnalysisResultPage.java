@@ -260,7 +260,7 @@ public class ParameterAnalysisResultPage extends SimpleFormEditor {
 						: "";
 				return i.name + unit;
 			}
-			var val = result.seriesOf(i)[col - 1];
+			var val = result.valueOf(i, col - 1);
 			return Numbers.format(val);
 		}
 	}
@@ -3,6 +3,7 @@ package org.openlca.app.util;
 import org.openlca.app.M;
 import org.openlca.app.db.Cache;
 import org.openlca.app.db.Database;
+import org.openlca.app.db.LabelCache;
 import org.openlca.core.database.CurrencyDao;
 import org.openlca.core.math.data_quality.AggregationType;
 import org.openlca.core.math.data_quality.NAHandling;
@@ -97,6 +98,9 @@ public class Labels {
 	public static String refUnit(FlowDescriptor flow) {
 		if (flow == null)
 			return "";
+		var cached = LabelCache.refUnit(flow.refFlowPropertyId);
+		if (cached != null)
+			return cached;
 		FlowProperty refProp = Cache.getEntityCache().get(
 				FlowProperty.class,
 				flow.refFlowPropertyId);
@@ -120,6 +124,11 @@ public class Labels {
 	public static String category(RootEntity e) {
 		if (e == null || e.category == null)
 			return "";
+		if (e.category.id != 0) {
+			var cached = LabelCache.categoryPath(e.category.id);
+			if (cached != null)
+				return cached;
+		}
 		return CategoryPath.getFull(e.category);
 	}
 
@@ -129,6 +138,9 @@ public class Labels {
 	public static String category(RootDescriptor d) {
 		if (d == null || d.category == null)
 			return "";
+		var cached = LabelCache.categoryPath(d.category);
+		if (cached != null)
+			return cached;
 		Category c = Cache.getEntityCache().get(Category.class, d.category);
 		if (c == null)
 			return "";
@@ -372,6 +384,9 @@ public class Labels {
 		static String append(String name, Long locationId) {
 			if (locationId == null)
 				return name;
+			var code = LabelCache.locationCode(locationId);
+			if (code != null)
+				return append(name, code);
 			var cache = Cache.getEntityCache();
 			if (cache == null)
 				return name;
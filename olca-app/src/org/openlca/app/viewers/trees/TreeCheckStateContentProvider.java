@@ -1,15 +1,29 @@
 package org.openlca.app.viewers.trees;
 
+import java.util.AbstractSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jface.viewers.ICheckStateProvider;
 import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.Viewer;
 
+/**
+ * A content and check state provider for trees in which only some elements
+ * can be selected. The check states of the other elements are derived from
+ * their children. As this requires a walk over the sub-tree of an element,
+ * the derived states are memoized: when the selection changes, only the
+ * states of the parents of the changed elements are cleared.
+ */
 public abstract class TreeCheckStateContentProvider<T> implements ICheckStateProvider, ITreeContentProvider {
 
-	private Set<T> selection = new HashSet<>();
+	private Selection selection = new Selection(new HashSet<>());
+	private final Map<T, CheckState> states = new HashMap<>();
+	private final Map<T, Boolean> containsLeaf = new HashMap<>();
 
 	@Override
 	@SuppressWarnings("unchecked")
@@ -23,7 +37,6 @@ public abstract class TreeCheckStateContentProvider<T> implements ICheckStatePro
 		return getCheckState((T) element) == CheckState.GRAYED;
 	}
 
-	@SuppressWarnings("unchecked")
 	private CheckState getCheckState(T element) {
 		if (element == null)
 			return CheckState.UNCHECKED;
@@ -32,18 +45,37 @@ public abstract class TreeCheckStateContentProvider<T> implements ICheckStatePro
 				return CheckState.CHECKED;
 			return CheckState.UNCHECKED;
 		}
+		var state = states.get(element);
+		if (state == null) {
+			state = computeCheckState(element);
+			states.put(element, state);
+		}
+		return state;
+	}
+
+	/**
+	 * Derives the state from all children, without stopping at the first
+	 * grayed child: when the state of an element is memoized, the states of
+	 * all its children are memoized too, which is required for clearing
+	 * the states of the parents in {@link #clearStatesOf}.
+	 */
+	@SuppressWarnings("unchecked")
+	private CheckState computeCheckState(T element) {
 		var children = getChildren(element);
 		if (children.length == 0)
 			return CheckState.UNCHECKED;
 		var checkedChildren = 0;
+		var grayed = false;
 		for (var child : children) {
 			var selection = getCheckState((T) child);
-			if (selection == CheckState.GRAYED)
-				return CheckState.GRAYED;
-			if (selection == CheckState.CHECKED) {
+			if (selection == CheckState.GRAYED) {
+				grayed = true;
+			} else if (selection == CheckState.CHECKED) {
 				checkedChildren++;
 			}
 		}
+		if (grayed)
+			return CheckState.GRAYED;
 		if (checkedChildren == children.length)
 			return CheckState.CHECKED;
 		if (checkedChildren > 0)
@@ -51,6 +83,24 @@ public abstract class TreeCheckStateContentProvider<T> implements ICheckStatePro
 		return CheckState.UNCHECKED;
 	}
 
+	/**
+	 * Clears the memoized states of the parents of the given element, up to
+	 * the first parent without memoized state. If that parent is derived, its
+	 * parents have no memoized state either, as memoizing a state memoizes
+	 * the states of all derived children. Selectable parents, however, are
+	 * never memoized, so the walk also stops there. The states above such a
+	 * parent only depend on whether it is selected, not on the elements below
+	 * it; when selecting a child also selects its parent, as in the commit
+	 * viewer, the parent is added to the selection, which then clears the
+	 * states above it.
+	 */
+	private void clearStatesOf(T element) {
+		var parent = parentOf(element);
+		while (parent != null && states.remove(parent) != null) {
+			parent = parentOf(parent);
+		}
+	}
+
 	protected abstract boolean isLeaf(T element);
 
 	protected boolean isSelectable(T element) {
@@ -62,7 +112,8 @@ public abstract class TreeCheckStateContentProvider<T> implements ICheckStatePro
 	}
 
 	public final void setSelection(Set<T> selection) {
-		this.selection = selection;
+		this.selection = new Selection(selection);
+		states.clear();
 	}
 
 	protected abstract void setSelection(T element, boolean checked);
@@ -89,10 +140,18 @@ public abstract class TreeCheckStateContentProvider<T> implements ICheckStatePro
 	private boolean isOrContainsLeaf(T element) {
 		if (isLeaf(element))
 			return true;
-		for (var child : childrenOf(element))
-			if (isOrContainsLeaf(child))
-				return true;
-		return false;
+		var contains = containsLeaf.get(element);
+		if (contains != null)
+			return contains;
+		contains = false;
+		for (var child : childrenOf(element)) {
+			if (isOrContainsLeaf(child)) {
+				contains = true;
+				break;
+			}
+		}
+		containsLeaf.put(element, contains);
+		return contains;
 	}
 
 	@Override
@@ -116,6 +175,80 @@ public abstract class TreeCheckStateContentProvider<T> implements ICheckStatePro
 		// subclasses may override
 	}
 
+	@Override
+	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+		states.clear();
+		containsLeaf.clear();
+	}
+
+	/**
+	 * The selected elements; changes of the selection clear the memoized
+	 * check states of the parents of the changed elements.
+	 */
+	private class Selection extends AbstractSet<T> {
+
+		private final Set<T> elements;
+
+		Selection(Set<T> elements) {
+			this.elements = elements != null
+					? elements
+					: new HashSet<>();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return elements.contains(o);
+		}
+
+		@Override
+		public boolean add(T element) {
+			if (!elements.add(element))
+				return false;
+			clearStatesOf(element);
+			return true;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean remove(Object o) {
+			if (!elements.remove(o))
+				return false;
+			clearStatesOf((T) o);
+			return true;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			var it = elements.iterator();
+			return new Iterator<>() {
+
+				private T last;
+
+				@Override
+				public boolean hasNext() {
+					return it.hasNext();
+				}
+
+				@Override
+				public T next() {
+					last = it.next();
+					return last;
+				}
+
+				@Override
+				public void remove() {
+					it.remove();
+					clearStatesOf(last);
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return elements.size();
+		}
+	}
+
 	private enum CheckState {
 
 		CHECKED,
@@ -17,6 +17,7 @@ import org.openlca.app.editors.Editors;
 import org.openlca.app.editors.ModelEditorInput;
 import org.openlca.app.preferences.FeatureFlag;
 import org.openlca.app.results.ResultBundle;
+import org.openlca.app.results.ResultCache;
 import org.openlca.app.results.ResultEditor;
 import org.openlca.app.results.simulation.SimulationEditor;
 import org.openlca.app.results.slca.SocialResult;
@@ -132,14 +133,31 @@ public class CalculationWizard extends Wizard {
 			return;
 		}
 
-		// run the calculation
-		log.trace("run calculation");
-		var calc = new SystemCalculator(Database.get())
-				.withSolver(App.getSolver());
-		Libraries.readersForCalculation().ifPresent(calc::withLibraries);
-		var result = setup.type == CalculationType.LAZY
-				? calc.calculateLazy(setup.calcSetup)
-				: calc.calculateEager(setup.calcSetup);
+		// run the calculation or take the result from the cache
+		var db = Database.get();
+		var key = ResultCache.keyOf(db, setup.calcSetup, setup.type.name());
+		var result = ResultCache.get(db, key);
+		if (result == null) {
+			log.trace("run calculation");
+			var calc = new SystemCalculator(db)
+					.withSolver(App.getSolver());
+			var libs = Libraries.readersForCalculation().orElse(null);
+			if (libs != null) {
+				calc.withLibraries(libs);
+			}
+			try {
+				result = setup.type == CalculationType.LAZY
+						? calc.calculateLazy(setup.calcSetup)
+						: calc.calculateEager(setup.calcSetup);
+			} catch (RuntimeException | Error e) {
+				Libraries.releaseReaders(libs);
+				throw e;
+			}
+			Libraries.bindReaders(libs, result);
+			ResultCache.put(db, key, setup.calcSetup, result);
+		} else {
+			log.trace("take result from cache");
+		}
 
 		var bundle = ResultBundle.of(setup.calcSetup, result);
 		if (setup.withDataQuality) {